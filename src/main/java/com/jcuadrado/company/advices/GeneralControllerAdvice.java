@@ -2,21 +2,30 @@ package com.jcuadrado.company.advices;
 
 import com.jcuadrado.company.exceptions.ErrorResponse;
 import com.jcuadrado.company.exceptions.GeneralException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
@@ -30,12 +39,24 @@ public class GeneralControllerAdvice {
                 .error(exception.getHttpStatus().getReasonPhrase())
                 .message(exception.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, exception.getHttpStatus());
+        return toResponse(errorResponse, exception.getHttpStatus());
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
-        Map<String, String> validationErrors = ex.getBindingResult().getFieldErrors().stream()
+        return validationErrorResponse(ex.getBindingResult().getFieldErrors());
+    }
+
+    /**
+     * WebFlux reports an invalid {@code @Valid} body with its own exception type.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return validationErrorResponse(ex.getBindingResult().getFieldErrors());
+    }
+
+    private static ResponseEntity<ErrorResponse> validationErrorResponse(List<FieldError> fieldErrors) {
+        Map<String, String> validationErrors = fieldErrors.stream()
                 .collect(Collectors.toMap(
                         FieldError::getField,
                         fieldError -> fieldError.getDefaultMessage() != null
@@ -52,7 +73,7 @@ public class GeneralControllerAdvice {
                 .details(validationErrors)
                 .build();
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return toResponse(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
@@ -63,7 +84,7 @@ public class GeneralControllerAdvice {
                 .error("Method Not Allowed")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.METHOD_NOT_ALLOWED);
+        return toResponse(errorResponse, HttpStatus.METHOD_NOT_ALLOWED);
     }
 
     @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
@@ -74,7 +95,7 @@ public class GeneralControllerAdvice {
                 .error("Unsupported Media Type")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        return toResponse(errorResponse, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
     }
 
     @ExceptionHandler(NoResourceFoundException.class)
@@ -85,7 +106,7 @@ public class GeneralControllerAdvice {
                 .error("Resource Not Found")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return toResponse(errorResponse, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(AuthenticationException.class)
@@ -96,7 +117,7 @@ public class GeneralControllerAdvice {
                 .error("Unauthorized")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+        return toResponse(errorResponse, HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
@@ -107,7 +128,7 @@ public class GeneralControllerAdvice {
                 .error("Forbidden")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+        return toResponse(errorResponse, HttpStatus.FORBIDDEN);
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
@@ -118,7 +139,56 @@ public class GeneralControllerAdvice {
                 .error("Bad Request")
                 .message("El cuerpo de la petición es requerido")
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return toResponse(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Errors WebFlux raises with their status already decided, such as an unreadable body (400) or an unknown path (404).
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(ex.getReason())
+                .build();
+        return toResponse(errorResponse, status);
+    }
+
+    /**
+     * No connection could be obtained in time (pool or concurrency limit exhausted, database unreachable).
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(Exception ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("La base de datos no tiene conexiones disponibles, intenta de nuevo en unos segundos")
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    /**
+     * A bounded executor (the login pool) and its queue are full.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("El servidor está atendiendo demasiadas solicitudes de inicio de sesión, intenta de nuevo en unos segundos")
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
     }
 
     @ExceptionHandler(Exception.class)
@@ -129,7 +199,14 @@ public class GeneralControllerAdvice {
                 .error("Internal Server Error")
                 .message(ex.getMessage())
                 .build();
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return toResponse(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Errors are always JSON: binary formats negotiated for company responses (protobuf) have no error schema.
+     */
+    private static ResponseEntity<ErrorResponse> toResponse(ErrorResponse errorResponse, HttpStatusCode status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
     }
 
 }
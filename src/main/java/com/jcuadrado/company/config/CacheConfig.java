@@ -0,0 +1,40 @@
+package com.jcuadrado.company.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jcuadrado.company.constants.CacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${company.cache.companies.enabled:true}") boolean companiesEnabled,
+            @Value("${company.cache.companies.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String companiesSpec,
+            @Value("${company.cache.counts.enabled:true}") boolean countsEnabled,
+            @Value("${company.cache.counts.spec:maximumSize=10000,expireAfterWrite=60s,recordStats}") String countsSpec) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                cache(CacheNames.COMPANIES, companiesEnabled, companiesSpec),
+                cache(CacheNames.COMPANY_COUNTS, countsEnabled, countsSpec)
+        ));
+        return cacheManager;
+    }
+
+    private static Cache cache(String name, boolean enabled, String spec) {
+        return enabled
+                ? new CaffeineCache(name, Caffeine.from(spec).build())
+                : new NoOpCache(name);
+    }
+}
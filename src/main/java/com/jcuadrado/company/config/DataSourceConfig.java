@@ -0,0 +1,36 @@
+package com.jcuadrado.company.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * With virtual threads every request gets its own thread, so nothing upstream of JDBC bounds how many of them wait on
+ * the database. This caps checkouts at the pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "company.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("company.datasource.concurrency-limit.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration acquireTimeout = environment.getProperty("company.datasource.concurrency-limit.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(5));
+                return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.jcuadrado.company.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * BCrypt is CPU-bound and deliberately slow, so logins get their own small pool instead of the request threads: a
+ * burst of logins queues here, and once the queue is full it is answered with 429 right away, while the request
+ * threads keep serving {@code /companies}. Boot publishes the pool as {@code executor.*} metrics tagged
+ * {@code name=loginExecutor}; rejections are counted in {@code auth.login.rejected}.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    public static final String LOGIN_EXECUTOR = "loginExecutor";
+
+    @Bean(LOGIN_EXECUTOR)
+    public ThreadPoolTaskExecutor loginExecutor(@Value("${security.login.executor.pool-size:4}") int poolSize,
+                                                @Value("${security.login.executor.queue-capacity:50}") int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("auth.login.rejected")
+                .description("Logins rejected because the login executor and its queue were full")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Login executor is full");
+        });
+        return executor;
+    }
+}
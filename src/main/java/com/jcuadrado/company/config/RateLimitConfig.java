@@ -0,0 +1,49 @@
+package com.jcuadrado.company.config;
+
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.security.JwtService;
+import com.jcuadrado.company.security.RateLimitRoute;
+import com.jcuadrado.company.security.RateLimiter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the routes listed in {@code security.rate-limit.routes}, each configured under
+ * {@code security.rate-limit.route.<name>.*}. With the limiter disabled no route is limited.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    private static final String PREFIX = "security.rate-limit.";
+
+    @Bean
+    public RateLimiter rateLimiter(Environment environment, JwtService jwtService) {
+        List<RateLimitRoute> routes = new ArrayList<>();
+        if (environment.getProperty(PREFIX + "enabled", Boolean.class, false)) {
+            for (String name : environment.getProperty(PREFIX + "routes", String[].class, new String[0])) {
+                String route = PREFIX + "route." + name + ".";
+                routes.add(new RateLimitRoute(
+                        name,
+                        environment.getRequiredProperty(route + "pattern"),
+                        environment.getRequiredProperty(route + "capacity", Integer.class),
+                        environment.getRequiredProperty(route + "refill-per-second", Double.class),
+                        RateLimitRoute.Key.valueOf(environment.getProperty(route + "key", "ip").toUpperCase(Locale.ROOT))));
+            }
+        }
+        return new RateLimiter(routes, environment.getProperty(PREFIX + "maximum-clients", Long.class, 100_000L),
+                token -> verifiedSubject(jwtService, token), System::nanoTime);
+    }
+
+    private static String verifiedSubject(JwtService jwtService, String token) {
+        try {
+            return jwtService.getUsernameFromJwtToken(token);
+        } catch (GeneralException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jcuadrado.company.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.security.JwtAuthenticationWebFilter;
+import com.jcuadrado.company.security.JwtService;
+import com.jcuadrado.company.security.RateLimitWebFilter;
+import com.jcuadrado.company.security.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same rules as {@link SecurityConfig} for the reactive stack: stateless JWT authentication, 403 for missing or
+ * insufficient credentials.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtService jwtService,
+                                                         ReactiveUserDetailsService reactiveUserDetailsService,
+                                                         @Value("${security.jwt.revocation-check.enabled:false}") boolean revocationCheck,
+                                                         RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN))
+            )
+            .authorizeExchange(authorize -> authorize
+                .pathMatchers("/auth/**").permitAll()
+                .pathMatchers(HttpMethod.POST, "/companies", "/companies/batch").hasAnyRole("ADMIN", "BASIC_USER")
+                .anyExchange().hasRole("ADMIN")
+            )
+            .addFilterAt(new JwtAuthenticationWebFilter(jwtService, reactiveUserDetailsService, revocationCheck), SecurityWebFiltersOrder.AUTHENTICATION)
+            .addFilterBefore(new RateLimitWebFilter(rateLimiter, objectMapper), SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+
+    /**
+     * Used by the revocation check of the JWT filter. The users live in memory, so the lookup never blocks an event
+     * loop.
+     */
+    @Bean
+    public ReactiveUserDetailsService reactiveUserDetailsService(UserDetailsService userDetailsService) {
+        return username -> Mono.fromCallable(() -> userDetailsService.loadUserByUsername(username))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Used by {@code AuthService} for the login endpoint, which runs it off the event loop.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(authProvider);
+    }
+
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.addAllowedOriginPattern("*");
+        configuration.addAllowedMethod("*");
+        configuration.addAllowedHeader("*");
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
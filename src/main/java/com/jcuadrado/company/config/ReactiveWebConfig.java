@@ -0,0 +1,29 @@
+package com.jcuadrado.company.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.formats.CompanyProtobufEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Custom writers are consulted before the default ones, and without an Accept header the first writer for the
+     * body wins, so JSON is registered again ahead of protobuf: as with {@link WebConfig}, only an explicit Accept
+     * header selects protobuf.
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        configurer.customCodecs().register(new CompanyProtobufEncoder());
+    }
+}
@@ -0,0 +1,12 @@
+package com.jcuadrado.company.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background housekeeping, such as sweeping expired refresh tokens.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
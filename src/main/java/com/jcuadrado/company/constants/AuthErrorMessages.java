@@ -0,0 +1,6 @@
+package com.jcuadrado.company.constants;
+
+public class AuthErrorMessages {
+    public static final String INVALID_REFRESH_TOKEN = "El refresh token no es válido o ha expirado";
+    public static final String REFRESH_TOKEN_REUSED = "El refresh token ya fue usado; inicia sesión de nuevo";
+}
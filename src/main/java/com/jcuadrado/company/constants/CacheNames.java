@@ -0,0 +1,6 @@
+package com.jcuadrado.company.constants;
+
+public class CacheNames {
+    public static final String COMPANIES = "companies";
+    public static final String COMPANY_COUNTS = "companyCounts";
+}
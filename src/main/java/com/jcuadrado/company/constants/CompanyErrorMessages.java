@@ -3,6 +3,17 @@ package com.jcuadrado.company.constants;
 public class CompanyErrorMessages {
     public static final String DATA_INTEGRITY_ERROR = "No se pudo procesar la solicitud por un error de integridad de datos";
     public static final String INTERNAL_SERVER_ERROR = "Error interno del servidor";
+    public static final String TOO_MANY_REQUESTS = "Demasiadas solicitudes, intenta de nuevo en unos segundos";
     public static final String COMPANY_NOT_FOUND = "Empresa no encontrada";
     public static final String COMPANY_ALREADY_EXISTS = "La empresa ya existe";
+    public static final String COMPANY_VERSION_MISMATCH = "La empresa fue modificada por otra solicitud; consulta su versión actual";
+    public static final String FIELD_CANNOT_BE_REMOVED = "El campo %s no puede eliminarse";
+    public static final String NIT_ALREADY_EXISTS = "Ya existe una empresa con el NIT %s";
+    public static final String INVALID_IMPORT_HEADER = "El archivo CSV debe incluir una cabecera con las columnas name y nit";
+    public static final String INVALID_IMPORT_ROW = "La fila no tiene un formato válido";
+    public static final String EMPTY_IMPORT_ROW = "La fila no contiene una empresa";
+    public static final String INVALID_EXPORT_FORMAT = "El formato de exportación debe ser ndjson o csv";
+    public static final String INVALID_FIELD = "El campo %s no existe; usa id, name, nit, address, phone o active";
+    public static final String INVALID_CURSOR = "El cursor de paginación no es válido";
+    public static final String SEARCH_INDEX_LOADING = "El índice de búsqueda se está cargando, intenta de nuevo en unos segundos";
 }
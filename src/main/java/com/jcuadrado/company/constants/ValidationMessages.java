@@ -5,5 +5,7 @@ public class ValidationMessages {
     public static final String NAME_SIZE = "El nombre debe tener entre 3 y 100 caracteres";
     public static final String NIT_REQUIRED = "El NIT es obligatorio";
     public static final String NIT_SIZE = "El NIT debe tener entre 5 y 20 caracteres";
+    public static final String BATCH_REQUIRED = "La lista de empresas es obligatoria";
+    public static final String BATCH_SIZE = "El lote no puede tener más de 1000 empresas";
     public static final String PHONE_PATTERN = "El teléfono debe contener entre 10 y 15 dígitos, puede incluir el símbolo + al inicio";
 }
\ No newline at end of file
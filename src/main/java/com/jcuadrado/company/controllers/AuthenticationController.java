@@ -1,24 +1,47 @@
 package com.jcuadrado.company.controllers;
 
+import com.jcuadrado.company.config.LoginExecutorConfig;
 import com.jcuadrado.company.dtos.AuthDto;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
 import com.jcuadrado.company.services.AuthService;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @RestController
 @RequestMapping("/auth")
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthenticationController {
 
     private final AuthService authService;
+    private final Executor loginExecutor;
+
+    public AuthenticationController(AuthService authService,
+                                    @Qualifier(LoginExecutorConfig.LOGIN_EXECUTOR) Executor loginExecutor) {
+        this.authService = authService;
+        this.loginExecutor = loginExecutor;
+    }
 
+    /**
+     * The password check runs on the login executor and frees the request thread; a full executor fails here with
+     * 429 before any work is queued.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthDto> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
-        return new ResponseEntity<>(this.authService.login(loginRequestDto), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<AuthDto>> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
+        return CompletableFuture.supplyAsync(
+                () -> new ResponseEntity<>(this.authService.login(loginRequestDto), HttpStatus.OK), loginExecutor);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthDto> refresh(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto) {
+        return new ResponseEntity<>(this.authService.refresh(refreshTokenRequestDto), HttpStatus.OK);
     }
 
 }
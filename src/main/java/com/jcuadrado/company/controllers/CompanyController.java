@@ -1,25 +1,68 @@
 package com.jcuadrado.company.controllers;
 
+import com.jcuadrado.company.dtos.BatchCreateCompanyDto;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
 import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.dtos.PaginatedResponseDto;
 import com.jcuadrado.company.dtos.PaginationQueryDto;
+import com.jcuadrado.company.dtos.PatchCompanyDto;
+import com.jcuadrado.company.dtos.SparseCompanyDto;
 import com.jcuadrado.company.dtos.UpdateCompanyDto;
+import com.jcuadrado.company.exports.ExportFormat;
+import com.jcuadrado.company.imports.CompanyRowReader;
+import com.jcuadrado.company.services.CompanyExportService;
+import com.jcuadrado.company.services.CompanyImportService;
 import com.jcuadrado.company.services.CompanyService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/companies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CompanyController {
 
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final CompanyService companyService;
+    private final CompanyImportService companyImportService;
+    private final CompanyExportService companyExportService;
 
     @PostMapping
-    public ResponseEntity<?> create(@Valid @RequestBody CreateCompanyDto createCompanyDto){
-        return new ResponseEntity<>(companyService.create(createCompanyDto), HttpStatus.CREATED);
+    public ResponseEntity<?> create(@Valid @RequestBody CreateCompanyDto createCompanyDto,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        CompanyDto company = companyService.create(createCompanyDto);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(CompanyETags.of(company, CompanyETags.representationOf(accept, null)))
+                .body(company);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@Valid @RequestBody BatchCreateCompanyDto batchCreateCompanyDto) {
+        return ResponseEntity.ok(companyService.createBatch(batchCreateCompanyDto));
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, CompanyRowReader.TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importCompanies(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        companyImportService.importCompanies(MediaType.parseMediaType(contentType), body, response.getOutputStream());
     }
 
     @GetMapping
@@ -27,19 +70,77 @@ public class CompanyController {
             @RequestParam(value = "search", required = false, defaultValue = "") String search,
             @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
             @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
-            @RequestParam(value = "isActive", required = false, defaultValue = "true") Boolean isActive) {
-        PaginationQueryDto queryDto = new PaginationQueryDto(search, page, size, isActive);
-        return ResponseEntity.ok(companyService.getAll(queryDto));
+            @RequestParam(value = "isActive", required = false, defaultValue = "true") Boolean isActive,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", required = false, defaultValue = "true") Boolean count,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
+        Set<CompanyField> selectedFields = CompanyField.parse(fields);
+        String eTag = CompanyETags.ofChanges(companyService.getChanges(),
+                CompanyETags.representationOf(request.getHeader(HttpHeaders.ACCEPT), selectedFields));
+        if (request.checkNotModified(eTag)) {
+            return CompanyETags.notModified(eTag);
+        }
+        PaginationQueryDto queryDto = PaginationQueryDto.builder()
+                .search(search)
+                .page(page)
+                .size(size)
+                .isActive(isActive)
+                .after(after)
+                .count(count)
+                .fields(selectedFields)
+                .build();
+        PaginatedResponseDto<CompanyDto> companies = companyService.getAll(queryDto);
+        return CompanyETags.ok(eTag).body(selectedFields == null
+                ? companies
+                : companies.map(company -> SparseCompanyDto.of(company, selectedFields)));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("companies." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(output -> companyExportService.export(exportFormat, output));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(companyService.getById(id));
+    public ResponseEntity<?> getById(@PathVariable Long id,
+                                     @RequestParam(value = "fields", required = false) String fields,
+                                     WebRequest request) {
+        Set<CompanyField> selectedFields = CompanyField.parse(fields);
+        String representation = CompanyETags.representationOf(request.getHeader(HttpHeaders.ACCEPT), selectedFields);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = CompanyETags.of(companyService.getVersion(id), representation);
+            if (request.checkNotModified(eTag)) {
+                return CompanyETags.notModified(eTag);
+            }
+        }
+        CompanyDto company = companyService.getById(id);
+        return CompanyETags.ok(CompanyETags.of(company, representation)).body(selectedFields == null
+                ? company
+                : SparseCompanyDto.of(company, selectedFields));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> update(@PathVariable Long id, @Valid @RequestBody UpdateCompanyDto updateCompanyDto) {
-        return ResponseEntity.ok(companyService.update(id, updateCompanyDto));
+    public ResponseEntity<?> update(@PathVariable Long id, @Valid @RequestBody UpdateCompanyDto updateCompanyDto,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CompanyDto company = companyService.update(id, updateCompanyDto, CompanyETags.expectedVersionOf(ifMatch));
+        return ResponseEntity.ok().eTag(CompanyETags.of(company, CompanyETags.representationOf(accept, null))).body(company);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patch(@PathVariable Long id, @Valid @RequestBody PatchCompanyDto patchCompanyDto,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CompanyDto company = companyService.patch(id, patchCompanyDto, CompanyETags.expectedVersionOf(ifMatch));
+        return ResponseEntity.ok().eTag(CompanyETags.of(company, CompanyETags.representationOf(accept, null))).body(company);
     }
 
     @DeleteMapping("/{id}")
@@ -47,5 +148,4 @@ public class CompanyController {
         companyService.delete(id);
         return ResponseEntity.noContent().build();
     }
-
 }
@@ -0,0 +1,119 @@
+package com.jcuadrado.company.controllers;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
+import com.jcuadrado.company.exceptions.GeneralException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Validators and conditional-request helpers shared by the servlet and reactive company controllers.
+ */
+final class CompanyETags {
+
+    /**
+     * Lets clients store responses but makes them revalidate with If-None-Match before reusing one.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final int REPRESENTATION_BYTES = 8;
+    private static final Pattern VERSION_TAG = Pattern.compile("(\\d{1,18})(?:-[0-9a-f]{" + 2 * REPRESENTATION_BYTES + "})?");
+
+    private CompanyETags() {
+    }
+
+    static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    /**
+     * A cacheable read: the body depends on the negotiated format, so caches must key it on Accept as well.
+     */
+    static ResponseEntity.BodyBuilder ok(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Identifies the representation a request selects: empty for full JSON, otherwise a digest of the Accept header
+     * and the selected fields. The same version serialized as CBOR, Smile or protobuf, or projected to other fields,
+     * is different bytes and must not share a validator with the JSON one. The raw Accept header is digested rather
+     * than the negotiated type, so two headers selecting the same format only cost a cache miss.
+     */
+    static String representationOf(String accept, Set<CompanyField> fields) {
+        String mediaRange = accept == null ? "" : accept.replace(" ", "").toLowerCase(Locale.ROOT);
+        boolean json = mediaRange.isEmpty() || mediaRange.equals(MediaType.ALL_VALUE) || mediaRange.equals(MediaType.APPLICATION_JSON_VALUE);
+        if (json && fields == null) {
+            return "";
+        }
+        String selection = fields == null ? "" : fields.stream().map(CompanyField::getProperty).collect(Collectors.joining(","));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((mediaRange + ";" + selection).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, REPRESENTATION_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String of(CompanyDto company, String representation) {
+        return company.getVersion() == null ? null : of(company.getVersion(), representation);
+    }
+
+    /**
+     * Strong validator of a single company: its optimistic-locking version changes with every write to the row,
+     * suffixed with the representation.
+     */
+    static String of(long version, String representation) {
+        return "\"" + version + suffix(representation) + "\"";
+    }
+
+    /**
+     * Weak validator of any company listing, taken from the counter every write to the table bumps, suffixed with
+     * the representation; the query parameters are already part of the cached URL.
+     */
+    static String ofChanges(long changes, String representation) {
+        return "W/\"" + changes + suffix(representation) + "\"";
+    }
+
+    private static String suffix(String representation) {
+        return representation.isEmpty() ? "" : "-" + representation;
+    }
+
+    /**
+     * Version required by an If-Match header, or {@code null} when the header is absent or {@code *}. If-Match uses
+     * strong comparison, so a weak or foreign ETag can never match. Any representation of a version names that
+     * version, whatever format the update itself is sent in.
+     */
+    static Long expectedVersionOf(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> eTags = ETag.parse(ifMatch);
+        if (eTags.size() == 1 && eTags.get(0).isWildcard()) {
+            return null;
+        }
+        if (eTags.size() == 1 && !eTags.get(0).weak()) {
+            Matcher tag = VERSION_TAG.matcher(eTags.get(0).tag());
+            if (tag.matches()) {
+                return Long.valueOf(tag.group(1));
+            }
+        }
+        throw new GeneralException(HttpStatus.PRECONDITION_FAILED, CompanyErrorMessages.COMPANY_VERSION_MISMATCH);
+    }
+}
@@ -0,0 +1,54 @@
+package com.jcuadrado.company.controllers;
+
+import com.jcuadrado.company.config.LoginExecutorConfig;
+import com.jcuadrado.company.dtos.AuthDto;
+import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.services.AuthService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@RestController
+@RequestMapping("/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthenticationController {
+
+    private final AuthService authService;
+    private final Executor loginExecutor;
+
+    public ReactiveAuthenticationController(AuthService authService,
+                                            @Qualifier(LoginExecutorConfig.LOGIN_EXECUTOR) Executor loginExecutor) {
+        this.authService = authService;
+        this.loginExecutor = loginExecutor;
+    }
+
+    /**
+     * BCrypt is deliberately slow, so the password check runs on the bounded login executor instead of an event
+     * loop; a full executor answers 429.
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthDto>> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(() -> this.authService.login(loginRequestDto), loginExecutor))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * No password check, but rotating the token waits on the refresh_tokens table, so it runs on bounded elastic
+     * rather than an event loop.
+     */
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<AuthDto>> refresh(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto) {
+        return Mono.fromCallable(() -> this.authService.refresh(refreshTokenRequestDto))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+}
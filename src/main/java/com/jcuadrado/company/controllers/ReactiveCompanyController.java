@@ -0,0 +1,123 @@
+package com.jcuadrado.company.controllers;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.dtos.PaginationQueryDto;
+import com.jcuadrado.company.dtos.PatchCompanyDto;
+import com.jcuadrado.company.dtos.SparseCompanyDto;
+import com.jcuadrado.company.dtos.UpdateCompanyDto;
+import com.jcuadrado.company.services.ReactiveCompanyService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * WebFlux mirror of {@link CompanyController} for the {@code reactive} profile, with the same {@code fields}
+ * selection and response formats. Bulk endpoints (batch, import, export) are only served by the servlet stack.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/companies")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyController {
+
+    private final ReactiveCompanyService companyService;
+
+    @PostMapping
+    public Mono<ResponseEntity<CompanyDto>> create(@Valid @RequestBody CreateCompanyDto createCompanyDto,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String representation = CompanyETags.representationOf(accept, null);
+        return companyService.create(createCompanyDto)
+                .map(company -> ResponseEntity.status(HttpStatus.CREATED).eTag(CompanyETags.of(company, representation)).body(company));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAll(
+            @RequestParam(value = "search", required = false, defaultValue = "") String search,
+            @RequestParam(value = "page", required = false, defaultValue = "0") Integer page,
+            @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
+            @RequestParam(value = "isActive", required = false, defaultValue = "true") Boolean isActive,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "count", required = false, defaultValue = "true") Boolean count,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServerWebExchange exchange) {
+        Set<CompanyField> selectedFields = CompanyField.parse(fields);
+        String representation = CompanyETags.representationOf(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT), selectedFields);
+        return companyService.getChanges().flatMap(changes -> {
+            String eTag = CompanyETags.ofChanges(changes, representation);
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.just(CompanyETags.notModified(eTag));
+            }
+            PaginationQueryDto queryDto = PaginationQueryDto.builder()
+                    .search(search)
+                    .page(page)
+                    .size(size)
+                    .isActive(isActive)
+                    .after(after)
+                    .count(count)
+                    .fields(selectedFields)
+                    .build();
+            return companyService.getAll(queryDto).map(companies -> CompanyETags.ok(eTag)
+                    .body(selectedFields == null
+                            ? companies
+                            : companies.map(company -> SparseCompanyDto.of(company, selectedFields))));
+        });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long id,
+                                                @RequestParam(value = "fields", required = false) String fields,
+                                                ServerWebExchange exchange) {
+        Set<CompanyField> selectedFields = CompanyField.parse(fields);
+        String representation = CompanyETags.representationOf(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT), selectedFields);
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) == null) {
+            return this.getCompany(id, selectedFields, representation);
+        }
+        return companyService.getVersion(id).flatMap(version -> {
+            String eTag = CompanyETags.of(version, representation);
+            return exchange.checkNotModified(eTag)
+                    ? Mono.just(CompanyETags.notModified(eTag))
+                    : this.getCompany(id, selectedFields, representation);
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<CompanyDto>> update(@PathVariable Long id, @Valid @RequestBody UpdateCompanyDto updateCompanyDto,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String representation = CompanyETags.representationOf(accept, null);
+        return companyService.update(id, updateCompanyDto, CompanyETags.expectedVersionOf(ifMatch))
+                .map(company -> ResponseEntity.ok().eTag(CompanyETags.of(company, representation)).body(company));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<CompanyDto>> patch(@PathVariable Long id, @Valid @RequestBody PatchCompanyDto patchCompanyDto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String representation = CompanyETags.representationOf(accept, null);
+        return companyService.patch(id, patchCompanyDto, CompanyETags.expectedVersionOf(ifMatch))
+                .map(company -> ResponseEntity.ok().eTag(CompanyETags.of(company, representation)).body(company));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return companyService.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private Mono<ResponseEntity<Object>> getCompany(Long id, Set<CompanyField> selectedFields, String representation) {
+        return companyService.getById(id).map(company -> CompanyETags.ok(CompanyETags.of(company, representation))
+                .body(selectedFields == null ? company : SparseCompanyDto.of(company, selectedFields)));
+    }
+}
@@ -11,4 +11,5 @@ import lombok.NoArgsConstructor;
 @Builder
 public class AuthDto {
     String token;
+    String refreshToken;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.jcuadrado.company.dtos;
+
+import com.jcuadrado.company.constants.ValidationMessages;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateCompanyDto {
+    public static final int MAX_SIZE = 1000;
+
+    @NotEmpty(message = ValidationMessages.BATCH_REQUIRED)
+    @Size(max = MAX_SIZE, message = ValidationMessages.BATCH_SIZE)
+    private List<@Valid CreateCompanyDto> companies;
+}
@@ -0,0 +1,18 @@
+package com.jcuadrado.company.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchCreateResponseDto {
+    private Integer created;
+    private Integer conflicts;
+    private List<BatchItemResultDto> results;
+}
@@ -0,0 +1,24 @@
+package com.jcuadrado.company.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+    private Integer index;
+    private Status status;
+    private CompanyDto company;
+    private String message;
+
+    public enum Status {
+        CREATED,
+        CONFLICT
+    }
+}
@@ -1,5 +1,6 @@
 package com.jcuadrado.company.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +16,7 @@ public class CompanyDto {
     private String nit;
     private String address;
     private String phone;
+    private Boolean active;
+    @JsonIgnore
+    private Long version;
 }
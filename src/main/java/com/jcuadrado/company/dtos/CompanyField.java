@@ -0,0 +1,51 @@
+package com.jcuadrado.company.dtos;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Company properties selectable through the {@code fields} request parameter, with the JPQL type used to select a
+ * typed {@code null} in place of an unrequested column. Declared in the order of the {@link CompanyDto} constructor.
+ */
+@Getter
+@AllArgsConstructor
+public enum CompanyField {
+    ID("id", "Long", CompanyDto::getId),
+    NAME("name", "String", CompanyDto::getName),
+    NIT("nit", "String", CompanyDto::getNit),
+    ADDRESS("address", "String", CompanyDto::getAddress),
+    PHONE("phone", "String", CompanyDto::getPhone),
+    ACTIVE("active", "Boolean", CompanyDto::getActive);
+
+    private final String property;
+    private final String jpqlType;
+    private final Function<CompanyDto, Object> getter;
+
+    /**
+     * Parses a comma-separated list of property names; {@code null} or blank means every field.
+     */
+    public static Set<CompanyField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<CompanyField> parsed = EnumSet.noneOf(CompanyField.class);
+        for (String property : fields.split(",")) {
+            String name = property.trim().toLowerCase(Locale.ROOT);
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new GeneralException(HttpStatus.BAD_REQUEST,
+                            String.format(CompanyErrorMessages.INVALID_FIELD, property.trim()))));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,30 @@
+package com.jcuadrado.company.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportRowResultDto {
+    private Long line;
+    private Status status;
+    private Long id;
+    private String nit;
+    private String message;
+    private Map<String, String> errors;
+
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID,
+        FAILED
+    }
+}
@@ -1,20 +1,30 @@
 package com.jcuadrado.company.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginatedResponseDto<T> {
     private List<T> data;
     private Integer totalPages;
     private Long totalElements;
     private Integer pageSize;
     private Integer currentPage;
+    private Boolean hasNext;
+    private String nextCursor;
+
+    public <R> PaginatedResponseDto<R> map(Function<T, R> mapper) {
+        return new PaginatedResponseDto<>(data.stream().map(mapper).toList(),
+                totalPages, totalElements, pageSize, currentPage, hasNext, nextCursor);
+    }
 }
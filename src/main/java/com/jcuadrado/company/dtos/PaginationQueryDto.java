@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -22,4 +24,8 @@ public class PaginationQueryDto {
     private Integer size = 10;
     @Builder.Default
     private Boolean isActive = true;
+    private String after;
+    @Builder.Default
+    private Boolean count = true;
+    private Set<CompanyField> fields;
 }
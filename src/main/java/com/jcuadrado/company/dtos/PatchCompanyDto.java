@@ -0,0 +1,66 @@
+package com.jcuadrado.company.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jcuadrado.company.constants.ValidationMessages;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Merge Patch (RFC 7396) body for a company. Jackson only calls the setters of members present in the document,
+ * so {@link #getChanges()} holds exactly the members sent, including explicit {@code null}s that clear a column.
+ */
+@Getter
+@NoArgsConstructor
+public class PatchCompanyDto {
+    /**
+     * Members that may be changed but never cleared with {@code null}.
+     */
+    public static final List<String> REQUIRED_FIELDS = List.of("name", "nit", "active");
+
+    @Size(min = 3, max = 100, message = ValidationMessages.NAME_SIZE)
+    private String name;
+
+    @Size(min = 5, max = 20, message = ValidationMessages.NIT_SIZE)
+    private String nit;
+
+    private String address;
+
+    @Pattern(regexp = "^\\+?[0-9]{10,15}$", message = ValidationMessages.PHONE_PATTERN)
+    private String phone;
+
+    private Boolean active;
+
+    @JsonIgnore
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+    public void setName(String name) {
+        this.name = name;
+        this.changes.put("name", name);
+    }
+
+    public void setNit(String nit) {
+        this.nit = nit;
+        this.changes.put("nit", nit);
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+        this.changes.put("address", address);
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+        this.changes.put("phone", phone);
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+        this.changes.put("active", active);
+    }
+}
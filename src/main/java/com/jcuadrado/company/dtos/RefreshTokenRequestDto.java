@@ -0,0 +1,16 @@
+package com.jcuadrado.company.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshTokenRequestDto {
+    @NotBlank(message = "refreshToken es obligatorio")
+    private String refreshToken;
+}
@@ -0,0 +1,27 @@
+package com.jcuadrado.company.dtos;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A company limited to the fields requested with {@code ?fields=}. Requested fields are written even when null.
+ */
+@Getter
+@AllArgsConstructor
+public class SparseCompanyDto {
+    @JsonAnyGetter
+    private final Map<String, Object> values;
+
+    public static SparseCompanyDto of(CompanyDto company, Set<CompanyField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (CompanyField field : fields) {
+            values.put(field.getProperty(), field.getGetter().apply(company));
+        }
+        return new SparseCompanyDto(values);
+    }
+}
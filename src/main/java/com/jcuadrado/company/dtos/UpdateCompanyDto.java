@@ -23,4 +23,6 @@ public class UpdateCompanyDto {
 
     @Pattern(regexp = "^\\+?[0-9]{10,15}$", message = ValidationMessages.PHONE_PATTERN)
     private String phone;
+
+    private Boolean active;
 }
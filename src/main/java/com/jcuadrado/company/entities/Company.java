@@ -11,13 +11,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "companies")
+@Table(name = "companies", uniqueConstraints = @UniqueConstraint(name = Company.NIT_CONSTRAINT, columnNames = "nit"))
 public class Company {
+    public static final String NIT_CONSTRAINT = "uk_companies_nit";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_seq")
+    @SequenceGenerator(name = "companies_seq", sequenceName = "companies_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "nit", nullable = false, unique = true)
+    @Column(name = "nit", nullable = false)
     private String nit;
 
     @Column(name = "name", nullable = false)
@@ -28,4 +31,12 @@ public class Company {
 
     @Column(name = "phone")
     private String phone;
+
+    @Builder.Default
+    @Column(name = "active", nullable = false)
+    private Boolean active = true;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,39 @@
+package com.jcuadrado.company.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family"))
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_digest", length = 64)
+    private String tokenDigest;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "family", nullable = false, length = 36)
+    private String family;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Builder.Default
+    @Column(name = "used", nullable = false)
+    private Boolean used = false;
+
+    @Builder.Default
+    @Column(name = "revoked", nullable = false)
+    private Boolean revoked = false;
+}
@@ -0,0 +1,28 @@
+package com.jcuadrado.company.exports;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.imports.CompanyRowReader;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+    CSV("csv", CompanyRowReader.TEXT_CSV);
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    public static ExportFormat from(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new GeneralException(HttpStatus.BAD_REQUEST, CompanyErrorMessages.INVALID_EXPORT_FORMAT));
+    }
+}
@@ -0,0 +1,54 @@
+package com.jcuadrado.company.formats;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link CompanyProtobufHttpMessageConverter}: encodes the same body types with the same
+ * schema, one message per value.
+ */
+public class CompanyProtobufEncoder extends AbstractEncoder<Object> {
+
+    private final Map<Class<?>, ObjectWriter> writers = CompanyProtobufWriters.load();
+
+    public CompanyProtobufEncoder() {
+        super(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF);
+    }
+
+    /**
+     * Also accepts {@code Object} so that a codec configurer files it with the object writers, next to JSON, rather
+     * than with the typed writers consulted before them; handlers declared as {@code Object} are asked again with the
+     * type of the actual body.
+     */
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (type == Object.class || writers.containsKey(type)) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        return Flux.from(inputStream).map(value -> this.encodeValue(value, bufferFactory, elementType, mimeType, hints));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        try {
+            return bufferFactory.wrap(writers.get(value.getClass()).writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new EncodingException("Could not write protobuf: " + e.getMessage(), e);
+        }
+    }
+}
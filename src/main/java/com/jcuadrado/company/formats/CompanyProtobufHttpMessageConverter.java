@@ -0,0 +1,50 @@
+package com.jcuadrado.company.formats;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.PaginatedResponseDto;
+import com.jcuadrado.company.dtos.SparseCompanyDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link CompanyDto} (or a {@link SparseCompanyDto} subset) and pages of them as protobuf messages described by {@code proto/company.proto}, using
+ * Jackson's protobuf backend so no generated classes are needed. Write-only: requests keep using JSON.
+ */
+public class CompanyProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    private final Map<Class<?>, ObjectWriter> writers = CompanyProtobufWriters.load();
+
+    public CompanyProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return writers.containsKey(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        writers.get(body.getClass()).writeValue(outputMessage.getBody(), body);
+    }
+}
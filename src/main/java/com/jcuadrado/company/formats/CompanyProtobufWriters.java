@@ -0,0 +1,40 @@
+package com.jcuadrado.company.formats;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.PaginatedResponseDto;
+import com.jcuadrado.company.dtos.SparseCompanyDto;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Protobuf writers for each supported body type, built from {@code proto/company.proto}; shared by the servlet
+ * converter and the WebFlux encoder.
+ */
+final class CompanyProtobufWriters {
+
+    private static final String SCHEMA_LOCATION = "proto/company.proto";
+
+    private CompanyProtobufWriters() {
+    }
+
+    static Map<Class<?>, ObjectWriter> load() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        try (InputStream schemaStream = new ClassPathResource(SCHEMA_LOCATION).getInputStream()) {
+            NativeProtobufSchema schema = ProtobufSchemaLoader.std.loadNative(schemaStream, false);
+            return Map.of(
+                    CompanyDto.class, mapper.writer(schema.forType("Company")),
+                    SparseCompanyDto.class, mapper.writer(schema.forType("Company")),
+                    PaginatedResponseDto.class, mapper.writer(schema.forType("CompanyPage")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
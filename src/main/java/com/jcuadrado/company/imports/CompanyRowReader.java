@@ -0,0 +1,27 @@
+package com.jcuadrado.company.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads an import body one company at a time, so only the current line is held in memory.
+ */
+public interface CompanyRowReader {
+    String TEXT_CSV_VALUE = "text/csv";
+    MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    /**
+     * Returns the next row, or {@code null} once the body is exhausted. Rows that cannot be parsed are returned
+     * with an error instead of a company.
+     */
+    ImportRow next() throws IOException;
+
+    static CompanyRowReader of(MediaType contentType, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        return TEXT_CSV.isCompatibleWith(contentType)
+                ? new CsvCompanyRowReader(reader)
+                : new NdjsonCompanyRowReader(reader, objectMapper);
+    }
+}
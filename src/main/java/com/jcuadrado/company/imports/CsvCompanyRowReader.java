@@ -0,0 +1,106 @@
+package com.jcuadrado.company.imports;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.exceptions.GeneralException;
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads CSV with a header row naming the {@code name}, {@code nit}, {@code address} and {@code phone} columns in any
+ * order. Fields may be quoted with {@code "} and quotes escaped by doubling them; quoted fields cannot span lines.
+ */
+public class CsvCompanyRowReader implements CompanyRowReader {
+
+    private final BufferedReader reader;
+    private final int nameColumn;
+    private final int nitColumn;
+    private final int addressColumn;
+    private final int phoneColumn;
+    private long line = 1;
+
+    public CsvCompanyRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        List<String> headerFields = header == null ? null : parse(header.replace("\uFEFF", ""));
+        List<String> columns = headerFields == null ? List.of() : headerFields.stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        this.nameColumn = columns.indexOf("name");
+        this.nitColumn = columns.indexOf("nit");
+        this.addressColumn = columns.indexOf("address");
+        this.phoneColumn = columns.indexOf("phone");
+        if (nameColumn < 0 || nitColumn < 0) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, CompanyErrorMessages.INVALID_IMPORT_HEADER);
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        List<String> fields = parse(text);
+        if (fields == null) {
+            return new ImportRow(line, null, CompanyErrorMessages.INVALID_IMPORT_ROW);
+        }
+        return new ImportRow(line, CreateCompanyDto.builder()
+                .name(field(fields, nameColumn))
+                .nit(field(fields, nitColumn))
+                .address(field(fields, addressColumn))
+                .phone(field(fields, phoneColumn))
+                .build(), null);
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, or returns {@code null} when a quoted field is left open.
+     */
+    private static List<String> parse(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,13 @@
+package com.jcuadrado.company.imports;
+
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRow {
+    private final long line;
+    private final CreateCompanyDto company;
+    private final String error;
+}
@@ -0,0 +1,39 @@
+package com.jcuadrado.company.imports;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+@RequiredArgsConstructor
+public class NdjsonCompanyRowReader implements CompanyRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+        try {
+            CreateCompanyDto company = objectMapper.readValue(text, CreateCompanyDto.class);
+            // A literal null line is valid JSON but carries no company
+            return company == null
+                    ? new ImportRow(line, null, CompanyErrorMessages.EMPTY_IMPORT_ROW)
+                    : new ImportRow(line, company, null);
+        } catch (JacksonException e) {
+            return new ImportRow(line, null, CompanyErrorMessages.INVALID_IMPORT_ROW);
+        }
+    }
+}
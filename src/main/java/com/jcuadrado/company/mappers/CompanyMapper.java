@@ -5,6 +5,7 @@ import com.jcuadrado.company.dtos.CreateCompanyDto;
 import com.jcuadrado.company.dtos.UpdateCompanyDto;
 import com.jcuadrado.company.entities.Company;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -14,8 +15,21 @@ public interface CompanyMapper {
     List<CompanyDto> toCompanyDtoList(List<Company> companyList);
     Company toCompany(CompanyDto companyDto);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "version", ignore = true)
     CompanyDto toCompanyDto(CreateCompanyDto createCompanyDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     CompanyDto toCompanyDto(UpdateCompanyDto updateCompanyDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Company toCompany(CreateCompanyDto createCompanyDto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Company toCompany(UpdateCompanyDto updateCompanyDto);
 }
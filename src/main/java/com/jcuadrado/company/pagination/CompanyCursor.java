@@ -0,0 +1,50 @@
+package com.jcuadrado.company.pagination;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position over the (name, id) ordering used to list companies.
+ */
+@Getter
+@AllArgsConstructor
+public class CompanyCursor {
+
+    private static final char SEPARATOR = ':';
+    private static final char INDEX_ORDER = 'i';
+
+    private final String name;
+    private final Long id;
+    /**
+     * Position in {@code CompanySearchIndex.ORDER} (Java string order) rather than the database collation, so the
+     * next page must come from the index too.
+     */
+    private final boolean inIndexOrder;
+
+    public CompanyCursor(String name, Long id) {
+        this(name, id, false);
+    }
+
+    public String encode() {
+        String raw = (inIndexOrder ? String.valueOf(INDEX_ORDER) : "") + id + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CompanyCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            boolean inIndexOrder = raw.charAt(0) == INDEX_ORDER;
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new CompanyCursor(raw.substring(separatorIndex + 1),
+                    Long.valueOf(raw.substring(inIndexOrder ? 1 : 0, separatorIndex)), inIndexOrder);
+        } catch (RuntimeException e) {
+            throw new GeneralException(HttpStatus.BAD_REQUEST, CompanyErrorMessages.INVALID_CURSOR);
+        }
+    }
+}
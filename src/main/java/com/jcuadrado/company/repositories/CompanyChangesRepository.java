@@ -0,0 +1,37 @@
+package com.jcuadrado.company.repositories;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Collection change counter behind the listing ETag: the {@code company_changes_seq} sequence, read through the
+ * {@code company_changes} view. Taking a sequence value locks no row, so concurrent writes never wait on each other
+ * to record a change.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompanyChangesRepository {
+
+    private final EntityManager entityManager;
+
+    public Optional<Long> findChanges() {
+        return entityManager.createNativeQuery("select changes from company_changes", Long.class)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(Long.class::cast);
+    }
+
+    /**
+     * Uses the caller's transaction, or, after its commit, the connection it still holds: a sequence value is kept
+     * whether or not that connection commits again.
+     */
+    public void increment() {
+        entityManager.createNativeQuery("select nextval('company_changes_seq')").getSingleResult();
+    }
+}
@@ -0,0 +1,12 @@
+package com.jcuadrado.company.repositories;
+
+import java.util.Map;
+
+public interface CompanyPatchRepository {
+
+    /**
+     * Sets only the given attributes and increments the version in a single statement. With a version, the row is
+     * only updated if it still has that version.
+     */
+    int patchCompanyById(Long id, Long version, Map<String, Object> changes);
+}
@@ -0,0 +1,34 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.entities.Company;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CompanyPatchRepositoryImpl implements CompanyPatchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int patchCompanyById(Long id, Long version, Map<String, Object> changes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Company> update = builder.createCriteriaUpdate(Company.class);
+        Root<Company> company = update.from(Company.class);
+        changes.forEach((attribute, value) -> update.set(company.get(attribute), value));
+
+        Path<Long> currentVersion = company.get("version");
+        update.set(currentVersion, builder.sum(currentVersion, 1L));
+        Predicate byId = builder.equal(company.get("id"), id);
+        update.where(version == null ? byId : builder.and(byId, builder.equal(currentVersion, version)));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
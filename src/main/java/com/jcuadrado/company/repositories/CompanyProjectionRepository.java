@@ -0,0 +1,33 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listing queries that select only the requested columns. {@code id} and {@code name} are always selected because
+ * the listing is ordered and paged by them; every other unrequested property is {@code null}.
+ */
+public interface CompanyProjectionRepository {
+
+    /**
+     * Same rows as {@code findSlice} or, with a pattern, {@code search}.
+     */
+    Slice<CompanyDto> findSliceWithFields(Set<CompanyField> fields, String pattern, boolean active, Pageable pageable);
+
+    /**
+     * Same rows as {@code findPageAfter} or, with a pattern, {@code searchPageAfter}.
+     */
+    List<CompanyDto> findPageAfterWithFields(Set<CompanyField> fields, String pattern, boolean active, String name, Long id, Limit limit);
+
+    /**
+     * Same rows as {@code findActiveByIds}.
+     */
+    List<CompanyDto> findActiveByIdsWithFields(Set<CompanyField> fields, Collection<Long> ids);
+}
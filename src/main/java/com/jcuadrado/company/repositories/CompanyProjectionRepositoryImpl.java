@@ -0,0 +1,74 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class CompanyProjectionRepositoryImpl implements CompanyProjectionRepository {
+
+    private static final Set<CompanyField> ALWAYS_SELECTED = Set.of(CompanyField.ID, CompanyField.NAME);
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<CompanyDto> findSliceWithFields(Set<CompanyField> fields, String pattern, boolean active, Pageable pageable) {
+        String jpql = QueryUtils.applySorting(this.select(fields) + this.where(pattern), pageable.getSort(), "c");
+        List<CompanyDto> companies = this.query(jpql, pattern, active)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = companies.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? companies.subList(0, pageable.getPageSize()) : companies, pageable, hasNext);
+    }
+
+    @Override
+    public List<CompanyDto> findPageAfterWithFields(Set<CompanyField> fields, String pattern, boolean active, String name, Long id, Limit limit) {
+        String jpql = this.select(fields) + this.where(pattern) +
+                " and (c.name, c.id) > (:name, :id) order by c.name asc, c.id asc";
+        return this.query(jpql, pattern, active)
+                .setParameter("name", name)
+                .setParameter("id", id)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    @Override
+    public List<CompanyDto> findActiveByIdsWithFields(Set<CompanyField> fields, Collection<Long> ids) {
+        return this.query(this.select(fields) + this.where(null) + " and c.id in :ids", null, true)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private TypedQuery<CompanyDto> query(String jpql, String pattern, boolean active) {
+        TypedQuery<CompanyDto> query = entityManager.createQuery(jpql, CompanyDto.class)
+                .setParameter("active", active);
+        return pattern == null ? query : query.setParameter("pattern", pattern);
+    }
+
+    private String select(Set<CompanyField> fields) {
+        String columns = Stream.of(CompanyField.values())
+                .map(field -> fields.contains(field) || ALWAYS_SELECTED.contains(field)
+                        ? "c." + field.getProperty()
+                        : "cast(null as " + field.getJpqlType() + ")")
+                .collect(Collectors.joining(", "));
+        return "select new com.jcuadrado.company.dtos.CompanyDto(" + columns + ", cast(null as Long)) from Company c ";
+    }
+
+    private String where(String pattern) {
+        return "where " + CompanyRepository.IS_ACTIVE + (pattern == null ? "" : " and (" + CompanyRepository.MATCHES_PATTERN + ")");
+    }
+}
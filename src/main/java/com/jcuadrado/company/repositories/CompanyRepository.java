@@ -1,15 +1,109 @@
 package com.jcuadrado.company.repositories;
 
+import com.jcuadrado.company.constants.CacheNames;
+import com.jcuadrado.company.dtos.CompanyDto;
 import com.jcuadrado.company.entities.Company;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface CompanyRepository extends JpaRepository<Company, Long> {
-    Page<Company> findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(String name, String nit, Pageable pageable);
-    Optional<Company> findByNit(String nit);
+public interface CompanyRepository extends JpaRepository<Company, Long>, CompanyPatchRepository, CompanyProjectionRepository {
+    String SELECT_COMPANY_DTO = "select new com.jcuadrado.company.dtos.CompanyDto(c.id, c.name, c.nit, c.address, c.phone, c.active, c.version) from Company c ";
+    String IS_ACTIVE = "c.active = :active";
+    String MATCHES_PATTERN = "lower(c.name) like :pattern escape '\\' or lower(c.nit) like :pattern escape '\\'";
+
+    @Query("select c.nit from Company c where c.nit in :nits")
+    Set<String> findExistingNits(@Param("nits") Collection<String> nits);
+
+    @Query(SELECT_COMPANY_DTO + "where c.id = :id")
+    Optional<CompanyDto> findDtoById(@Param("id") Long id);
+
+    @Query(SELECT_COMPANY_DTO + "where c.active = true and c.id in :ids")
+    List<CompanyDto> findActiveByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.version from Company c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(SELECT_COMPANY_DTO + "where " + IS_ACTIVE)
+    Slice<CompanyDto> findSlice(@Param("active") boolean active, Pageable pageable);
+
+    @Query(SELECT_COMPANY_DTO + "where " + IS_ACTIVE + " and (" + MATCHES_PATTERN + ")")
+    Slice<CompanyDto> search(@Param("pattern") String pattern, @Param("active") boolean active, Pageable pageable);
+
+    @Cacheable(cacheNames = CacheNames.COMPANY_COUNTS, key = "#active")
+    @Query("select count(c) from Company c where " + IS_ACTIVE)
+    long countAll(@Param("active") boolean active);
+
+    @Cacheable(cacheNames = CacheNames.COMPANY_COUNTS, key = "#active + ':' + #pattern")
+    @Query("select count(c) from Company c where " + IS_ACTIVE + " and (" + MATCHES_PATTERN + ")")
+    long countBySearch(@Param("pattern") String pattern, @Param("active") boolean active);
+
+    @Query(SELECT_COMPANY_DTO +
+            "where " + IS_ACTIVE + " and (c.name, c.id) > (:name, :id) " +
+            "order by c.name asc, c.id asc")
+    List<CompanyDto> findPageAfter(@Param("active") boolean active, @Param("name") String name, @Param("id") Long id, Limit limit);
+
+    @Query(SELECT_COMPANY_DTO +
+            "where " + IS_ACTIVE + " and (" + MATCHES_PATTERN + ") " +
+            "and (c.name, c.id) > (:name, :id) " +
+            "order by c.name asc, c.id asc")
+    List<CompanyDto> searchPageAfter(@Param("pattern") String pattern, @Param("active") boolean active, @Param("name") String name, @Param("id") Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_COMPANY_DTO + "order by c.id")
+    Stream<CompanyDto> streamAll();
+
+    @Transactional
+    @Query(value = "insert into companies (nit, name, address, phone) values (:nit, :name, :address, :phone) " +
+            "on conflict (nit) do nothing returning id", nativeQuery = true)
+    Optional<Long> insertIgnoringNitConflict(@Param("nit") String nit, @Param("name") String name,
+                                             @Param("address") String address, @Param("phone") String phone);
+
+    /**
+     * Applies the non-null fields in a single statement. With a version, the row is only updated if it still has
+     * that version; with {@code null}, the last writer wins.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Company c set " +
+            "c.name = coalesce(:name, c.name), " +
+            "c.nit = coalesce(:nit, c.nit), " +
+            "c.address = coalesce(:address, c.address), " +
+            "c.phone = coalesce(:phone, c.phone), " +
+            "c.active = coalesce(:active, c.active), " +
+            "c.version = c.version + 1 " +
+            "where c.id = :id and (:version is null or c.version = :version)")
+    int updateCompanyById(@Param("id") Long id, @Param("version") Long version,
+                          @Param("name") String name, @Param("nit") String nit, @Param("address") String address,
+                          @Param("phone") String phone, @Param("active") Boolean active);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Company c where c.id = :id")
+    int deleteCompanyById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update Company c set c.active = false, c.version = c.version + 1 where c.id = :id and c.active = true")
+    int deactivateCompanyById(@Param("id") Long id);
 }
@@ -0,0 +1,56 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.entities.RefreshToken;
+import com.jcuadrado.company.security.RefreshTokenStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public void save(String digest, String username, String family, Instant expiresAt) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenDigest(digest)
+                .username(username)
+                .family(family)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Override
+    public Optional<StoredRefreshToken> find(String digest, Instant now) {
+        return refreshTokenRepository.findByTokenDigestAndExpiresAtAfter(digest, now)
+                .map(token -> new StoredRefreshToken(token.getUsername(), token.getFamily(),
+                        refreshTokenRepository.existsByFamilyAndRevokedTrue(token.getFamily())));
+    }
+
+    @Override
+    @Transactional
+    public boolean rotate(String usedDigest, String digest, String username, String family, Instant expiresAt) {
+        if (refreshTokenRepository.markUsed(usedDigest) != 1) {
+            return false;
+        }
+        this.save(digest, username, family, expiresAt);
+        return true;
+    }
+
+    @Override
+    public void revokeFamily(String family) {
+        refreshTokenRepository.revokeFamily(family);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return refreshTokenRepository.deleteExpired(now);
+    }
+}
@@ -0,0 +1,227 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * R2DBC counterpart of {@link CompanyRepository} for the reactive stack: the same statements, written in SQL that
+ * runs on PostgreSQL and on H2 in PostgreSQL mode.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyRepository {
+
+    private static final String SELECT_COMPANY = "select id, name, nit, address, phone, active, version from companies ";
+    private static final String IS_ACTIVE = "active = :active";
+    private static final String MATCHES_PATTERN = "lower(name) like :pattern escape '\\' or lower(nit) like :pattern escape '\\'";
+    private static final Set<String> PATCHABLE_COLUMNS = Set.of("name", "nit", "address", "phone", "active");
+    private static final Set<CompanyField> ALWAYS_SELECTED = Set.of(CompanyField.ID, CompanyField.NAME);
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<CompanyDto> findDtoById(Long id) {
+        return databaseClient.sql(SELECT_COMPANY + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveCompanyRepository::toCompanyDto)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(Long id) {
+        return databaseClient.sql("select version from companies where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * One page in (name, id) order, optionally filtered by a LIKE pattern from {@code SearchPatterns}. With
+     * {@code fields}, only those columns (plus id and name, which the cursor needs) are selected and the rest of
+     * each DTO, including the version, is left {@code null}.
+     */
+    public Flux<CompanyDto> findPage(Set<CompanyField> fields, String pattern, boolean active, int limit, long offset) {
+        return bindPattern(databaseClient.sql(select(fields) + "where " + IS_ACTIVE + matching(pattern) +
+                        "order by name asc, id asc limit :limit offset :offset"), pattern)
+                .bind("active", active)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(mapper(fields))
+                .all();
+    }
+
+    public Flux<CompanyDto> findPageAfter(Set<CompanyField> fields, String pattern, boolean active, String name, Long id, int limit) {
+        return bindPattern(databaseClient.sql(select(fields) + "where " + IS_ACTIVE + matching(pattern) +
+                        "and (name, id) > (:name, :id) order by name asc, id asc limit :limit"), pattern)
+                .bind("active", active)
+                .bind("name", name)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(mapper(fields))
+                .all();
+    }
+
+    public Mono<Long> count(String pattern, boolean active) {
+        return bindPattern(databaseClient.sql("select count(*) as total from companies where " + IS_ACTIVE + matching(pattern)), pattern)
+                .bind("active", active)
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Draws an id from the same pooled sequence Hibernate allocates from; a single value is never inside a block
+     * Hibernate holds, since each block is only handed out after its own nextval.
+     */
+    public Mono<Long> nextId() {
+        return databaseClient.sql("select nextval('companies_seq') as id")
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Long> insert(Long id, String nit, String name, String address, String phone) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("insert into companies (id, nit, name, address, phone, active, version) " +
+                        "values (:id, :nit, :name, :address, :phone, true, 0)")
+                .bind("id", id)
+                .bind("nit", nit)
+                .bind("name", name);
+        spec = bindNullable(spec, "address", address, String.class);
+        spec = bindNullable(spec, "phone", phone, String.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Applies the non-null fields in a single statement. With a version, the row is only updated if it still has
+     * that version; with {@code null}, the last writer wins.
+     */
+    public Mono<Long> update(Long id, Long version, String name, String nit, String address, String phone, Boolean active) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("update companies set " +
+                        "name = coalesce(:name, name), " +
+                        "nit = coalesce(:nit, nit), " +
+                        "address = coalesce(:address, address), " +
+                        "phone = coalesce(:phone, phone), " +
+                        "active = coalesce(:active, active), " +
+                        "version = version + 1 " +
+                        "where id = :id" + (version == null ? "" : " and version = :version"))
+                .bind("id", id);
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        spec = bindNullable(spec, "name", name, String.class);
+        spec = bindNullable(spec, "nit", nit, String.class);
+        spec = bindNullable(spec, "address", address, String.class);
+        spec = bindNullable(spec, "phone", phone, String.class);
+        spec = bindNullable(spec, "active", active, Boolean.class);
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Sets exactly the columns present in a merge patch, including explicit nulls.
+     */
+    public Mono<Long> patch(Long id, Long version, Map<String, Object> changes) {
+        StringBuilder sql = new StringBuilder("update companies set ");
+        for (String column : changes.keySet()) {
+            if (!PATCHABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException(column);
+            }
+            sql.append(column).append(" = :").append(column).append(", ");
+        }
+        sql.append("version = version + 1 where id = :id").append(version == null ? "" : " and version = :version");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("id", id);
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Class<?> type = "active".equals(change.getKey()) ? Boolean.class : String.class;
+            spec = bindNullable(spec, change.getKey(), change.getValue(), type);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from companies where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deactivateById(Long id) {
+        return databaseClient.sql("update companies set active = false, version = version + 1 where id = :id and active = true")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> findChanges() {
+        return databaseClient.sql("select changes from company_changes")
+                .map(row -> row.get("changes", Long.class))
+                .one();
+    }
+
+    public Mono<Long> incrementChanges() {
+        return databaseClient.sql("select nextval('company_changes_seq') as changes")
+                .map(row -> row.get("changes", Long.class))
+                .one();
+    }
+
+    private static String select(Set<CompanyField> fields) {
+        if (fields == null) {
+            return SELECT_COMPANY;
+        }
+        return selected(fields).map(CompanyField::getProperty).collect(Collectors.joining(", ", "select ", " from companies "));
+    }
+
+    private static Function<Readable, CompanyDto> mapper(Set<CompanyField> fields) {
+        if (fields == null) {
+            return ReactiveCompanyRepository::toCompanyDto;
+        }
+        Set<CompanyField> columns = selected(fields).collect(Collectors.toSet());
+        return row -> new CompanyDto(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                columns.contains(CompanyField.NIT) ? row.get("nit", String.class) : null,
+                columns.contains(CompanyField.ADDRESS) ? row.get("address", String.class) : null,
+                columns.contains(CompanyField.PHONE) ? row.get("phone", String.class) : null,
+                columns.contains(CompanyField.ACTIVE) ? row.get("active", Boolean.class) : null,
+                null);
+    }
+
+    private static Stream<CompanyField> selected(Set<CompanyField> fields) {
+        return Stream.of(CompanyField.values()).filter(field -> fields.contains(field) || ALWAYS_SELECTED.contains(field));
+    }
+
+    private static String matching(String pattern) {
+        return pattern == null ? " " : " and (" + MATCHES_PATTERN + ") ";
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindPattern(DatabaseClient.GenericExecuteSpec spec, String pattern) {
+        return pattern == null ? spec : spec.bind("pattern", pattern);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                                  Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static CompanyDto toCompanyDto(Readable row) {
+        return new CompanyDto(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("nit", String.class),
+                row.get("address", String.class),
+                row.get("phone", String.class),
+                row.get("active", Boolean.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.security.RefreshTokenStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * R2DBC counterpart of {@link JpaRefreshTokenStore}. {@link RefreshTokenStore} is blocking, so each call waits for its
+ * statement; callers run it off the event loop (the login executor, or bounded elastic for refreshes).
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRefreshTokenStore implements RefreshTokenStore {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public void save(String digest, String username, String family, Instant expiresAt) {
+        this.insert(digest, username, family, expiresAt).block();
+    }
+
+    @Override
+    public Optional<StoredRefreshToken> find(String digest, Instant now) {
+        return databaseClient.sql("select t.username, t.family, exists(select 1 from refresh_tokens r " +
+                        "where r.family = t.family and r.revoked) as family_revoked " +
+                        "from refresh_tokens t where t.token_digest = :digest and t.expires_at > :now")
+                .bind("digest", digest)
+                .bind("now", toTimestamp(now))
+                .map(row -> new StoredRefreshToken(row.get("username", String.class), row.get("family", String.class),
+                        Boolean.TRUE.equals(row.get("family_revoked", Boolean.class))))
+                .one()
+                .blockOptional();
+    }
+
+    @Override
+    public boolean rotate(String usedDigest, String digest, String username, String family, Instant expiresAt) {
+        return Boolean.TRUE.equals(databaseClient.sql("update refresh_tokens set used = true where token_digest = :digest and used = false")
+                .bind("digest", usedDigest)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 1
+                        ? this.insert(digest, username, family, expiresAt).thenReturn(true)
+                        : Mono.just(false))
+                .as(transactionalOperator::transactional)
+                .block());
+    }
+
+    @Override
+    public void revokeFamily(String family) {
+        databaseClient.sql("update refresh_tokens set revoked = true where family = :family")
+                .bind("family", family)
+                .then()
+                .block();
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        Long deleted = databaseClient.sql("delete from refresh_tokens where expires_at <= :now")
+                .bind("now", toTimestamp(now))
+                .fetch()
+                .rowsUpdated()
+                .block();
+        return deleted == null ? 0 : deleted.intValue();
+    }
+
+    private Mono<Void> insert(String digest, String username, String family, Instant expiresAt) {
+        return databaseClient.sql("insert into refresh_tokens (token_digest, username, family, expires_at, used, revoked) " +
+                        "values (:digest, :username, :family, :expiresAt, false, false)")
+                .bind("digest", digest)
+                .bind("username", username)
+                .bind("family", family)
+                .bind("expiresAt", toTimestamp(expiresAt))
+                .then();
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,35 @@
+package com.jcuadrado.company.repositories;
+
+import com.jcuadrado.company.entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    Optional<RefreshToken> findByTokenDigestAndExpiresAtAfter(String tokenDigest, Instant now);
+
+    boolean existsByFamilyAndRevokedTrue(String family);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.used = true where t.tokenDigest = :tokenDigest and t.used = false")
+    int markUsed(@Param("tokenDigest") String tokenDigest);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.family = :family")
+    int revokeFamily(@Param("family") String family);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,584 @@
+package com.jcuadrado.company.search;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Optional in-memory trigram inverted index over the name and NIT of active companies.
+ * <p>
+ * Every indexed company gets an ordinal; each trigram of its lower-cased name and NIT maps to a posting list of
+ * ordinals kept as a growable {@code int[]}. Ordinals only grow, so posting lists stay sorted and are intersected
+ * in place by seeking through them. Per ordinal the index keeps only the id, the name it sorts by and the
+ * lower-cased text it matches against; searches return ids and names, and callers load the rows of the page.
+ * Updates and deletes tombstone the previous ordinal, and the index is compacted once tombstones outnumber live
+ * documents. Terms shorter than a trigram have no posting list to narrow them down, so the index does not answer
+ * them ({@link #supports(String)}).
+ * <p>
+ * The index only sees writes made through this instance, so it is rebuilt from the database periodically
+ * ({@link #beginReload()}); the copy being built replaces the current one once loaded, with the writes made
+ * meanwhile replayed on top.
+ * <p>
+ * Results follow {@link #ORDER}, Java's {@code String} order, which is not the database collation; cursors from the
+ * index are marked as such so a listing never continues in the other order.
+ */
+@Component
+public class CompanySearchIndex {
+
+    public static final Comparator<CompanyDto> ORDER = Comparator
+            .comparing(CompanyDto::getName)
+            .thenComparing(CompanyDto::getId);
+
+    private static final int GRAM_SIZE = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Segment segment = new Segment();
+    private volatile boolean ready;
+
+    /**
+     * Latest state of each company written while a reload runs ({@code null} once removed), replayed over the
+     * reloaded copy since the rows it read may be older. Tracked from the start, so writes before the first load
+     * are not lost either.
+     */
+    private Map<Long, CompanyDto> writtenWhileReloading = new HashMap<>();
+    private Reload reload;
+
+    public CompanySearchIndex(@Value("${company.search.in-memory.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the index can answer the term: it needs at least one trigram.
+     */
+    public boolean supports(String term) {
+        return SearchPatterns.normalize(term).length() >= GRAM_SIZE;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts building a fresh copy from the database, or returns {@code null} when disabled or a reload is
+     * already running. Fill it with {@link Reload#add(Collection)}, then {@link #completeReload(Reload)} it.
+     */
+    public Reload beginReload() {
+        if (!enabled) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            if (reload != null) {
+                return null;
+            }
+            if (writtenWhileReloading == null) {
+                writtenWhileReloading = new HashMap<>();
+            }
+            reload = new Reload();
+            return reload;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replays the writes made since the reload began over the new copy and starts answering from it.
+     */
+    public void completeReload(Reload completed) {
+        lock.writeLock().lock();
+        try {
+            if (completed != reload) {
+                return;
+            }
+            writtenWhileReloading.forEach((id, company) -> {
+                if (company == null) {
+                    completed.segment.tombstone(id);
+                } else {
+                    completed.segment.put(company);
+                }
+            });
+            completed.segment.compactIfNeeded();
+            segment = completed.segment;
+            writtenWhileReloading = null;
+            reload = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a reload that failed; the current copy keeps answering.
+     */
+    public void abortReload(Reload aborted) {
+        lock.writeLock().lock();
+        try {
+            if (aborted == reload) {
+                reload = null;
+                if (ready) {
+                    writtenWhileReloading = null;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(CompanyDto company) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            this.trackWhileReloading(company.getId(), company);
+            segment.put(company);
+            segment.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            this.trackWhileReloading(id, null);
+            segment.tombstone(id);
+            segment.compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the companies whose lower-cased name or NIT contains the normalized term, in {@link #ORDER}:
+     * those after {@code after} when given, skipping {@code offset}. Matches are counted as they are found and only
+     * the first {@code offset + limit} ordinals are kept in a bounded heap, so a search allocates in proportion to
+     * the page rather than to the number of matches. The page holds only the id and name of each company.
+     */
+    public SearchPage search(String term, CompanyDto after, int offset, int limit) {
+        String normalized = SearchPatterns.normalize(term);
+        if (normalized.length() < GRAM_SIZE) {
+            throw new IllegalArgumentException("Search terms shorter than " + GRAM_SIZE + " characters are not indexed");
+        }
+        int keep = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        lock.readLock().lock();
+        try {
+            TopMatches top = new TopMatches(segment, after, keep);
+            segment.forEachMatch(normalized, top);
+            int[] ordinals = top.sorted();
+            List<CompanyDto> content = new ArrayList<>(Math.max(0, ordinals.length - offset));
+            for (int i = offset; i < ordinals.length; i++) {
+                content.add(CompanyDto.builder()
+                        .id(segment.ids[ordinals[i]])
+                        .name(segment.names[ordinals[i]])
+                        .build());
+            }
+            return new SearchPage(content, top.total, top.remaining > keep);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void trackWhileReloading(Long id, CompanyDto company) {
+        if (writtenWhileReloading != null) {
+            writtenWhileReloading.put(id, company);
+        }
+    }
+
+    /**
+     * A copy of the index being filled from the database, invisible to searches until completed.
+     */
+    public static final class Reload {
+        private final Segment segment = new Segment();
+
+        /**
+         * Adds a batch of active companies. Called from the loading thread only.
+         */
+        public void add(Collection<CompanyDto> companies) {
+            for (CompanyDto company : companies) {
+                segment.put(company);
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchPage {
+        /**
+         * Id and name of each company on the page, in {@link #ORDER}.
+         */
+        private final List<CompanyDto> content;
+        /**
+         * Every match of the term, regardless of the cursor.
+         */
+        private final int total;
+        private final boolean hasNext;
+    }
+
+    private static final class Segment {
+        private long[] ids = new long[1024];
+        private String[] names = new String[1024];
+        private String[] haystacks = new String[1024];
+        private int nextOrdinal;
+        private int tombstones;
+        private final OrdinalsById ordinalsById = new OrdinalsById();
+        private final Map<Long, PostingList> postings = new HashMap<>();
+
+        /**
+         * Walks the smallest posting list of the term's trigrams and seeks every other list forward to each of its
+         * ordinals, so the intersection needs no copy of any list.
+         */
+        private void forEachMatch(String term, IntConsumer action) {
+            long[] grams = grams(term);
+            PostingList[] lists = new PostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return;
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            int[] positions = new int[lists.length];
+            candidates:
+            for (int i = 0; i < lists[0].size; i++) {
+                int ordinal = lists[0].ordinals[i];
+                for (int l = 1; l < lists.length; l++) {
+                    positions[l] = lists[l].seek(ordinal, positions[l]);
+                    if (positions[l] == lists[l].size) {
+                        return;
+                    }
+                    if (lists[l].ordinals[positions[l]] != ordinal) {
+                        continue candidates;
+                    }
+                }
+                if (haystacks[ordinal] != null && haystacks[ordinal].contains(term)) {
+                    action.accept(ordinal);
+                }
+            }
+        }
+
+        /**
+         * Compares two ordinals in {@link #ORDER}.
+         */
+        private int compare(int ordinal, int other) {
+            int byName = names[ordinal].compareTo(names[other]);
+            return byName != 0 ? byName : Long.compare(ids[ordinal], ids[other]);
+        }
+
+        private boolean isAfter(int ordinal, CompanyDto after) {
+            int byName = names[ordinal].compareTo(after.getName());
+            return byName != 0 ? byName > 0 : ids[ordinal] > after.getId();
+        }
+
+        private void put(CompanyDto company) {
+            this.put(company.getId(), company.getName(),
+                    SearchPatterns.normalize(company.getName()) + FIELD_SEPARATOR + SearchPatterns.normalize(company.getNit()));
+        }
+
+        private void put(long id, String name, String haystack) {
+            this.tombstone(id);
+            this.ensureCapacity();
+
+            int ordinal = nextOrdinal++;
+            ids[ordinal] = id;
+            names[ordinal] = name;
+            haystacks[ordinal] = haystack;
+            ordinalsById.put(id, ordinal);
+            for (long gram : grams(haystack)) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(ordinal);
+            }
+        }
+
+        private void tombstone(long id) {
+            int ordinal = ordinalsById.remove(id);
+            if (ordinal >= 0) {
+                names[ordinal] = null;
+                haystacks[ordinal] = null;
+                tombstones++;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (nextOrdinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                names = Arrays.copyOf(names, names.length * 2);
+                haystacks = Arrays.copyOf(haystacks, haystacks.length * 2);
+            }
+        }
+
+        /**
+         * Updates tombstone as much as deletes do, so this runs after every write.
+         */
+        private void compactIfNeeded() {
+            if (tombstones <= ordinalsById.size()) {
+                return;
+            }
+            long[] oldIds = ids;
+            String[] oldNames = names;
+            String[] oldHaystacks = haystacks;
+            int oldNextOrdinal = nextOrdinal;
+            int capacity = Math.max(1024, ordinalsById.size() * 2);
+            ids = new long[capacity];
+            names = new String[capacity];
+            haystacks = new String[capacity];
+            nextOrdinal = 0;
+            tombstones = 0;
+            ordinalsById.clear();
+            postings.clear();
+            for (int ordinal = 0; ordinal < oldNextOrdinal; ordinal++) {
+                if (oldHaystacks[ordinal] != null) {
+                    this.put(oldIds[ordinal], oldNames[ordinal], oldHaystacks[ordinal]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The first matches after the cursor, kept as a max-heap of ordinals bounded to the requested page.
+     */
+    private static final class TopMatches implements IntConsumer {
+        private final Segment segment;
+        private final CompanyDto after;
+        private final int keep;
+        private int[] heap;
+        private int heapSize;
+        private int total;
+        private int remaining;
+
+        private TopMatches(Segment segment, CompanyDto after, int keep) {
+            this.segment = segment;
+            this.after = after;
+            this.keep = keep;
+            this.heap = new int[Math.min(keep, 1024)];
+        }
+
+        @Override
+        public void accept(int ordinal) {
+            total++;
+            if (after != null && !segment.isAfter(ordinal, after)) {
+                return;
+            }
+            remaining++;
+            if (heapSize < keep) {
+                if (heapSize == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min(keep, heap.length * 2L));
+                }
+                heap[heapSize] = ordinal;
+                this.siftUp(heapSize++);
+            } else if (keep > 0 && segment.compare(ordinal, heap[0]) < 0) {
+                heap[0] = ordinal;
+                this.siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap into an array in {@link #ORDER}.
+         */
+        private int[] sorted() {
+            int[] sorted = new int[heapSize];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                this.siftDown(0);
+            }
+            return sorted;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (segment.compare(heap[index], heap[parent]) <= 0) {
+                    return;
+                }
+                this.swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < heapSize && segment.compare(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < heapSize && segment.compare(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                this.swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int ordinal = heap[i];
+            heap[i] = heap[j];
+            heap[j] = ordinal;
+        }
+    }
+
+    /**
+     * Open-addressing map from company id to its live ordinal, with no boxed keys or entry objects per company.
+     * Removal shifts the following entries back instead of leaving tombstones.
+     */
+    private static final class OrdinalsById {
+        private static final int ABSENT = -1;
+
+        private long[] keys = new long[2048];
+        private int[] ordinals = absent(2048);
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            Arrays.fill(ordinals, ABSENT);
+            size = 0;
+        }
+
+        private void put(long id, int ordinal) {
+            if ((size + 1) * 2L > keys.length) {
+                this.resize(keys.length * 2);
+            }
+            int slot = this.find(id);
+            if (ordinals[slot] == ABSENT) {
+                size++;
+            }
+            keys[slot] = id;
+            ordinals[slot] = ordinal;
+        }
+
+        /**
+         * Removes the id and returns its ordinal, or {@code -1} when it was not indexed.
+         */
+        private int remove(long id) {
+            int slot = this.find(id);
+            int removed = ordinals[slot];
+            if (removed == ABSENT) {
+                return ABSENT;
+            }
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; ordinals[next] != ABSENT; next = (next + 1) & mask) {
+                int home = home(keys[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    ordinals[hole] = ordinals[next];
+                    hole = next;
+                }
+            }
+            ordinals[hole] = ABSENT;
+            size--;
+            return removed;
+        }
+
+        /**
+         * Slot holding the id, or the empty slot where it would go.
+         */
+        private int find(long id) {
+            int mask = keys.length - 1;
+            int slot = home(id, mask);
+            while (ordinals[slot] != ABSENT && keys[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldOrdinals = ordinals;
+            keys = new long[capacity];
+            ordinals = absent(capacity);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldOrdinals[slot] != ABSENT) {
+                    int target = this.find(oldKeys[slot]);
+                    keys[target] = oldKeys[slot];
+                    ordinals[target] = oldOrdinals[slot];
+                }
+            }
+        }
+
+        private static int home(long id, int mask) {
+            long hash = id * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private static int[] absent(int capacity) {
+            int[] ordinals = new int[capacity];
+            Arrays.fill(ordinals, ABSENT);
+            return ordinals;
+        }
+    }
+
+    /**
+     * Distinct trigrams of the text, each packed as three 16-bit chars into a long.
+     */
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_SIZE) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM_SIZE + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static final class PostingList {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        /**
+         * First position at or after {@code from} whose ordinal is not below {@code ordinal}, or {@code size}.
+         */
+        int seek(int ordinal, int from) {
+            int position = Arrays.binarySearch(ordinals, from, size, ordinal);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jcuadrado.company.search;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.repositories.CompanyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompanySearchIndexLoader {
+
+    private final CompanySearchIndex companySearchIndex;
+    private final CompanyRepository companyRepository;
+
+    @Value("${company.search.in-memory.load-batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * A failure here must not stop the application: searches fall back to the database while the index is not
+     * ready, and the next resync tries again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        this.reload();
+    }
+
+    /**
+     * Writes from other instances and direct database changes only reach the index through this periodic rebuild,
+     * so they show up in searches within one interval.
+     */
+    @Scheduled(initialDelayString = "${company.search.in-memory.resync-interval:PT10M}",
+            fixedDelayString = "${company.search.in-memory.resync-interval:PT10M}")
+    public void resync() {
+        this.reload();
+    }
+
+    private void reload() {
+        CompanySearchIndex.Reload reload = companySearchIndex.beginReload();
+        if (reload == null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<CompanyDto> batch = companyRepository
+                    .findSlice(true, PageRequest.of(0, batchSize, Sort.Direction.ASC, "name", "id"))
+                    .getContent();
+            while (!batch.isEmpty()) {
+                reload.add(batch);
+                CompanyDto last = batch.get(batch.size() - 1);
+                batch = companyRepository.findPageAfter(true, last.getName(), last.getId(), Limit.of(batchSize));
+            }
+        } catch (RuntimeException e) {
+            companySearchIndex.abortReload(reload);
+            log.error("Company search index could not be loaded; searches keep using the database until the next resync", e);
+            return;
+        }
+        companySearchIndex.completeReload(reload);
+        log.info("Company search index loaded {} companies in {} ms", companySearchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
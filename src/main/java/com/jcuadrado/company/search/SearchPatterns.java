@@ -0,0 +1,29 @@
+package com.jcuadrado.company.search;
+
+import java.util.Locale;
+
+public final class SearchPatterns {
+
+    private SearchPatterns() {
+    }
+
+    public static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Builds the LIKE pattern matched against lower(name) and lower(nit), or null when there is nothing to filter.
+     * Wildcards typed by the user are escaped with a backslash, the escape character declared by the repository queries.
+     */
+    public static String toContainsPattern(String term) {
+        String normalized = normalize(term);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        String escaped = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
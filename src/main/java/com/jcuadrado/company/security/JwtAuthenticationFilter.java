@@ -1,28 +1,43 @@
 package com.jcuadrado.company.security;
 
+import com.jcuadrado.company.exceptions.GeneralException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates each request from its bearer token alone: the user and roles come from the token's claims, so the
+ * only per-request cost is the signature check. With {@code security.jwt.revocation-check.enabled} the user is also
+ * looked up, and tokens of users that were removed, disabled or locked are rejected. Tokens issued before the roles
+ * claim carry no authorities, so for those the user is looked up the same way and its authorities are used.
+ */
 @Component
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
+    @Value("${security.jwt.revocation-check.enabled:false}")
+    private boolean revocationCheck;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -31,7 +46,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,23 +53,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.getUsernameFromJwtToken(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.validateJwtToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        // Verifies the signature and expiry; a token verified before is answered from JwtService's cache
+        UsernamePasswordAuthenticationToken authToken = jwtService.getAuthenticationFromJwtToken(jwt);
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            boolean withoutRoles = authToken.getAuthorities().isEmpty();
+            if (revocationCheck || withoutRoles) {
+                UserDetails user = this.loadActiveUser(authToken.getName());
+                if (withoutRoles) {
+                    authToken = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                }
             }
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadActiveUser(String username) {
+        UserDetails user;
+        try {
+            user = this.userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            user = null;
+        }
+        if (user == null || !user.isEnabled() || !user.isAccountNonLocked()) {
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        return user;
+    }
 }
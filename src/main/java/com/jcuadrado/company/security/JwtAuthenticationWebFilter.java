@@ -0,0 +1,64 @@
+package com.jcuadrado.company.security;
+
+import com.jcuadrado.company.exceptions.GeneralException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link JwtAuthenticationFilter}. Not a bean on its own: WebFlux would otherwise also run it
+ * outside the security chain.
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final boolean revocationCheck;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        final String jwt = authHeader.substring(7);
+        final UsernamePasswordAuthenticationToken authToken;
+        try {
+            authToken = jwtService.getAuthenticationFromJwtToken(jwt);
+        } catch (GeneralException e) {
+            exchange.getResponse().setStatusCode(e.getHttpStatus());
+            return exchange.getResponse().setComplete();
+        }
+
+        boolean withoutRoles = authToken.getAuthorities().isEmpty();
+        Mono<UsernamePasswordAuthenticationToken> authentication = !revocationCheck && !withoutRoles
+                ? Mono.just(authToken)
+                : userDetailsService.findByUsername(authToken.getName())
+                        .filter(user -> user.isEnabled() && user.isAccountNonLocked())
+                        .map(user -> withoutRoles
+                                ? new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())
+                                : authToken);
+
+        return authentication
+                .flatMap(authenticated -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authenticated))
+                        .thenReturn(true))
+                .switchIfEmpty(Mono.defer(() -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return exchange.getResponse().setComplete().thenReturn(false);
+                }))
+                .then();
+    }
+}
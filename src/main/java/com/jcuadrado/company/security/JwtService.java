@@ -1,28 +1,63 @@
 package com.jcuadrado.company.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.jcuadrado.company.exceptions.GeneralException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtService {
 
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    /**
+     * Claim with the user's authorities ({@code ROLE_ADMIN}, ...), so requests are authorized from the token alone.
+     */
+    public static final String ROLES_CLAIM = "roles";
 
-    @Value("${security.jwt.expiration-time}")
-    private Long expirationTime;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final Long expirationTime;
+
+    /**
+     * Claims of tokens whose signature was already checked, keyed by the SHA-256 of the token and dropped when the
+     * token expires. Invalid tokens are never cached; {@code null} when the cache is disabled with a size of 0.
+     */
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
+
+    public JwtService(@Value("${security.jwt.secret-key}") String secretKey,
+                      @Value("${security.jwt.expiration-time}") Long expirationTime,
+                      @Value("${security.jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.expirationTime = expirationTime;
+        this.verifiedTokens = verifiedCacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
+    }
 
     public String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -37,45 +72,86 @@ public class JwtService {
         return Jwts
                 .builder()
                 .subject(username)
+                .claim(ROLES_CLAIM, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public String getUsernameFromJwtToken(String token) {
+        return this.verify(token).getSubject();
+    }
+
+    /**
+     * Builds the authenticated user from the subject and roles of a verified token, without looking the user up.
+     * Tokens issued without the roles claim come back with no authorities; the authentication filters then take them
+     * from the user store.
+     */
+    public UsernamePasswordAuthenticationToken getAuthenticationFromJwtToken(String token) {
+        Claims claims = this.verify(token);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null
+                ? List.of()
+                : roles.stream().map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role))).toList();
+        UserDetails principal = User.withUsername(claims.getSubject()).password("").authorities(authorities).build();
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        this.verify(authToken);
+        return true;
+    }
+
+    private Claims verify(String token) {
         if (ObjectUtils.isEmpty(token))
             throw new GeneralException(HttpStatus.UNAUTHORIZED, "Invalid token");
-        try {
-            return Jwts
-                    .parser()
-                    .verifyWith((SecretKey) getSignInKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (Exception e) {
-            throw new GeneralException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        if (verifiedTokens == null) {
+            return this.parse(token);
         }
+        ByteBuffer digest = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = this.parse(token);
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    private Claims parse(String token) {
         try {
-            Jwts
-                    .parser()
-                    .verifyWith((SecretKey) getSignInKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new GeneralException(HttpStatus.UNAUTHORIZED, "Invalid token");
         }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
+    private static final class UntilTokenExpires implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            return expiration == null
+                    ? 0
+                    : TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.jcuadrado.company.security;
+
+import lombok.Getter;
+
+/**
+ * Limit for the requests whose path matches {@link #getPattern()}: a bucket of {@link #getCapacity()} tokens per
+ * client, refilled at {@link #getRefillPerSecond()} tokens per second.
+ */
+@Getter
+public class RateLimitRoute {
+
+    /**
+     * What identifies a client: its IP address, or the subject of its bearer token (the IP when it sends none).
+     */
+    public enum Key {
+        IP,
+        SUBJECT
+    }
+
+    private final String name;
+    private final String pattern;
+    private final int capacity;
+    private final double refillPerSecond;
+    private final Key key;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    public RateLimitRoute(String name, String pattern, int capacity, double refillPerSecond, Key key) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit route " + name + " needs a positive capacity and refill rate");
+        }
+        this.name = name;
+        this.pattern = pattern;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.key = key;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+    }
+}
@@ -0,0 +1,57 @@
+package com.jcuadrado.company.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Reactive counterpart of {@link RateLimitFilter}, placed before {@link JwtAuthenticationWebFilter}. Not a bean on
+ * its own, for the same reason.
+ */
+@RequiredArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        RateLimitRoute route = rateLimiter.routeFor(request.getPath().pathWithinApplication().value());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientKey = rateLimiter.clientKey(route, request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION),
+                remoteAddress == null ? "unknown" : remoteAddress.getHostString());
+        long waitNanos = rateLimiter.tryAcquire(route, clientKey);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, RateLimiter.retryAfterSeconds(waitNanos));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(RateLimiter.tooManyRequests());
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+    }
+}
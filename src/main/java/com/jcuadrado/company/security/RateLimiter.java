@@ -0,0 +1,110 @@
+package com.jcuadrado.company.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.exceptions.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process token buckets, one per route and client, checked before authentication and any database work.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} with the instant at which it is full again (the virtual-scheduling form
+ * of a token bucket): taking a token moves that instant one refill interval forward with a CAS, so concurrent
+ * requests never take a lock, and different clients never touch the same memory. Buckets live in a bounded Caffeine
+ * map and are dropped once they have been idle long enough to be full, which loses nothing.
+ */
+public class RateLimiter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final List<RateLimitRoute> routes;
+    private final Cache<String, AtomicLong> buckets;
+    private final Function<String, String> verifiedSubject;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param verifiedSubject subject of a bearer token whose signature checks out, {@code null} for any other token
+     */
+    public RateLimiter(List<RateLimitRoute> routes, long maximumClients, Function<String, String> verifiedSubject,
+                       LongSupplier nanoClock) {
+        this.routes = List.copyOf(routes);
+        this.verifiedSubject = verifiedSubject;
+        this.nanoClock = nanoClock;
+        long idleNanos = routes.stream().mapToLong(RateLimitRoute::getBurstNanos).max().orElse(0);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(idleNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+    }
+
+    /**
+     * First route whose pattern matches the path, or {@code null} when the path is not limited.
+     */
+    public RateLimitRoute routeFor(String path) {
+        for (RateLimitRoute route : routes) {
+            if (PATH_MATCHER.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only a verified token selects the subject's bucket; anything else falls back to the IP, so a forged subject can
+     * neither drain another user's bucket nor mint fresh buckets. Verified tokens are cached by {@link JwtService},
+     * so the JWT filter does not check the same signature again.
+     */
+    public String clientKey(RateLimitRoute route, String authorization, String remoteAddress) {
+        if (route.getKey() == RateLimitRoute.Key.SUBJECT && authorization != null && authorization.startsWith("Bearer ")) {
+            String subject = verifiedSubject.apply(authorization.substring(7));
+            if (subject != null) {
+                return route.getName() + ":sub:" + subject;
+            }
+        }
+        return route.getName() + ":ip:" + remoteAddress;
+    }
+
+    /**
+     * Takes one token from the client's bucket.
+     *
+     * @return 0 when the request may go on, otherwise the nanoseconds until the bucket has a token again
+     */
+    public long tryAcquire(RateLimitRoute route, String clientKey) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(clientKey, key -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now < 0 ? now : fullAt) + route.getIntervalNanos();
+            long excess = next - now - route.getBurstNanos();
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public static String retryAfterSeconds(long waitNanos) {
+        return String.valueOf(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    public static ErrorResponse tooManyRequests() {
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message(CompanyErrorMessages.TOO_MANY_REQUESTS)
+                .build();
+    }
+}
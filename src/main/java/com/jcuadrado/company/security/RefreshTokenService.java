@@ -0,0 +1,109 @@
+package com.jcuadrado.company.security;
+
+import com.jcuadrado.company.constants.AuthErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. Each login starts a family; every refresh marks the presented token as used and
+ * issues its successor in the same family. A used token presented again means it leaked, so the whole family is
+ * revoked and both the thief and the legitimate client have to log in again.
+ * <p>
+ * Only the SHA-256 of each token is stored, in the {@code refresh_tokens} table through {@link RefreshTokenStore}, so
+ * any replica can rotate a token issued by another and a reuse is caught wherever it is presented. Marking a token
+ * as used is a conditional update, so of two concurrent refreshes with the same token exactly one wins, and it
+ * commits together with the insert of the successor.
+ */
+@Component
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenStore store;
+    private final Duration expiration;
+
+    public RefreshTokenService(RefreshTokenStore store,
+                               @Value("${security.jwt.refresh-token.expiration-time}") long expirationTime) {
+        this.store = store;
+        this.expiration = Duration.ofMillis(expirationTime);
+    }
+
+    /**
+     * Starts a new family for a user that just proved its password.
+     */
+    public String issue(String username) {
+        return this.issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor and returns it with the user it belongs to.
+     */
+    public Rotation rotate(String refreshToken) {
+        if (ObjectUtils.isEmpty(refreshToken))
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.INVALID_REFRESH_TOKEN);
+        String digest = digest(refreshToken);
+        RefreshTokenStore.StoredRefreshToken current = store.find(digest, Instant.now())
+                .orElseThrow(() -> new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.INVALID_REFRESH_TOKEN));
+        if (current.isFamilyRevoked())
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.INVALID_REFRESH_TOKEN);
+        String successor = this.newToken();
+        if (!store.rotate(digest, digest(successor), current.getUsername(), current.getFamily(), Instant.now().plus(expiration))) {
+            store.revokeFamily(current.getFamily());
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.REFRESH_TOKEN_REUSED);
+        }
+        return new Rotation(current.getUsername(), successor);
+    }
+
+    /**
+     * Expired tokens can no longer be used, so their rows are only kept until the next sweep.
+     */
+    @Scheduled(initialDelayString = "${security.jwt.refresh-token.cleanup-interval:PT1H}",
+            fixedDelayString = "${security.jwt.refresh-token.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        store.deleteExpired(Instant.now());
+    }
+
+    private String issue(String username, String family) {
+        String refreshToken = this.newToken();
+        store.save(digest(refreshToken), username, family, Instant.now().plus(expiration));
+        return refreshToken;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final String username;
+        private final String refreshToken;
+    }
+}
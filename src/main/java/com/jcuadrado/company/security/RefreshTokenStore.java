@@ -0,0 +1,41 @@
+package com.jcuadrado.company.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Persistent storage behind {@link RefreshTokenService}, keyed by the hex SHA-256 of each token. It lives in the
+ * database so every replica sees the same tokens, and they survive restarts.
+ */
+public interface RefreshTokenStore {
+
+    void save(String digest, String username, String family, Instant expiresAt);
+
+    /**
+     * The token if it exists and has not expired, with whether any token of its family was revoked.
+     */
+    Optional<StoredRefreshToken> find(String digest, Instant now);
+
+    /**
+     * Marks a token as used with a conditional update and saves its successor, in one transaction, so a failed insert
+     * does not leave the client with a used token and no replacement.
+     *
+     * @return {@code false}, without saving anything, when the token had already been used
+     */
+    boolean rotate(String usedDigest, String digest, String username, String family, Instant expiresAt);
+
+    void revokeFamily(String family);
+
+    int deleteExpired(Instant now);
+
+    @Getter
+    @AllArgsConstructor
+    class StoredRefreshToken {
+        private final String username;
+        private final String family;
+        private final boolean familyRevoked;
+    }
+}
@@ -2,7 +2,9 @@ package com.jcuadrado.company.services;
 
 import com.jcuadrado.company.dtos.AuthDto;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
 
 public interface AuthService {
     AuthDto login(LoginRequestDto loginRequestDto);
+    AuthDto refresh(RefreshTokenRequestDto refreshTokenRequestDto);
 }
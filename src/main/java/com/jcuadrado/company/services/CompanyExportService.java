@@ -0,0 +1,10 @@
+package com.jcuadrado.company.services;
+
+import com.jcuadrado.company.exports.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CompanyExportService {
+    void export(ExportFormat format, OutputStream output) throws IOException;
+}
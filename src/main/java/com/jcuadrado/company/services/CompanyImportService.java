@@ -0,0 +1,11 @@
+package com.jcuadrado.company.services;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface CompanyImportService {
+    void importCompanies(MediaType contentType, InputStream input, OutputStream output) throws IOException;
+}
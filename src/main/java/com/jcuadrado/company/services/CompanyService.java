@@ -4,8 +4,12 @@ import com.jcuadrado.company.dtos.*;
 
 public interface CompanyService {
     CompanyDto create(CreateCompanyDto createCompanyDto);
+    BatchCreateResponseDto createBatch(BatchCreateCompanyDto batchCreateCompanyDto);
     PaginatedResponseDto<CompanyDto> getAll(PaginationQueryDto paginationQueryDto);
     CompanyDto getById(Long id);
-    CompanyDto update(Long id, UpdateCompanyDto updateCompanyDto);
+    long getVersion(Long id);
+    long getChanges();
+    CompanyDto update(Long id, UpdateCompanyDto updateCompanyDto, Long expectedVersion);
+    CompanyDto patch(Long id, PatchCompanyDto patchCompanyDto, Long expectedVersion);
     void delete(Long id);
 }
@@ -0,0 +1,18 @@
+package com.jcuadrado.company.services;
+
+import com.jcuadrado.company.dtos.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CompanyService} served by the reactive stack.
+ */
+public interface ReactiveCompanyService {
+    Mono<CompanyDto> create(CreateCompanyDto createCompanyDto);
+    Mono<PaginatedResponseDto<CompanyDto>> getAll(PaginationQueryDto paginationQueryDto);
+    Mono<CompanyDto> getById(Long id);
+    Mono<Long> getVersion(Long id);
+    Mono<Long> getChanges();
+    Mono<CompanyDto> update(Long id, UpdateCompanyDto updateCompanyDto, Long expectedVersion);
+    Mono<CompanyDto> patch(Long id, PatchCompanyDto patchCompanyDto, Long expectedVersion);
+    Mono<Void> delete(Long id);
+}
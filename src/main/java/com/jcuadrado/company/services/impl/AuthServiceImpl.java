@@ -1,14 +1,21 @@
 package com.jcuadrado.company.services.impl;
 
+import com.jcuadrado.company.constants.AuthErrorMessages;
 import com.jcuadrado.company.dtos.AuthDto;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.security.RefreshTokenService;
 import com.jcuadrado.company.services.AuthService;
 import com.jcuadrado.company.security.JwtService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,6 +24,8 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsService userDetailsService;
 
     @Override
     public AuthDto login(LoginRequestDto request) {
@@ -28,6 +37,30 @@ public class AuthServiceImpl implements AuthService {
         String token = jwtService.generateTokenFromUsername(user);
         return AuthDto.builder()
                 .token(token)
+                .refreshToken(refreshTokenService.issue(user.getUsername()))
+                .build();
+    }
+
+    /**
+     * Issues a new access token and rotates the refresh token without checking the password again. The user is
+     * still looked up, so removed or disabled users cannot refresh and role changes reach the next access token.
+     */
+    @Override
+    public AuthDto refresh(RefreshTokenRequestDto request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(rotation.getUsername());
+        } catch (UsernameNotFoundException e) {
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.INVALID_REFRESH_TOKEN);
+        }
+        if (!user.isEnabled() || !user.isAccountNonLocked())
+            throw new GeneralException(HttpStatus.UNAUTHORIZED, AuthErrorMessages.INVALID_REFRESH_TOKEN);
+
+        return AuthDto.builder()
+                .token(jwtService.generateTokenFromUsername(user))
+                .refreshToken(rotation.getRefreshToken())
                 .build();
     }
 }
@@ -0,0 +1,69 @@
+package com.jcuadrado.company.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.exports.ExportFormat;
+import com.jcuadrado.company.repositories.CompanyRepository;
+import com.jcuadrado.company.services.CompanyExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompanyExportServiceImpl implements CompanyExportService {
+
+    private static final String CSV_HEADER = "id,name,nit,address,phone,active\n";
+
+    private final CompanyRepository companyRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every company ordered by id from a single forward-only cursor. The read-only transaction keeps the
+     * cursor open (PostgreSQL only honours the fetch size inside a transaction) and sees one consistent snapshot.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream output) throws IOException {
+        if (format == ExportFormat.CSV) {
+            output.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        try (Stream<CompanyDto> companies = companyRepository.streamAll()) {
+            Iterator<CompanyDto> iterator = companies.iterator();
+            while (iterator.hasNext()) {
+                CompanyDto company = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    output.write(toCsv(company).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    output.write(objectMapper.writeValueAsBytes(company));
+                }
+                output.write('\n');
+            }
+        }
+        output.flush();
+    }
+
+    private static String toCsv(CompanyDto company) {
+        return company.getId() + "," + csvField(company.getName()) + "," + csvField(company.getNit()) + ","
+                + csvField(company.getAddress()) + "," + csvField(company.getPhone()) + "," + Objects.toString(company.getActive(), "");
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
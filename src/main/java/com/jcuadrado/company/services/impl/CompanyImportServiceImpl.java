@@ -0,0 +1,130 @@
+package com.jcuadrado.company.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.BatchCreateCompanyDto;
+import com.jcuadrado.company.dtos.BatchCreateResponseDto;
+import com.jcuadrado.company.dtos.BatchItemResultDto;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.dtos.ImportRowResultDto;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.imports.CompanyRowReader;
+import com.jcuadrado.company.imports.ImportRow;
+import com.jcuadrado.company.services.CompanyImportService;
+import com.jcuadrado.company.services.CompanyService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompanyImportServiceImpl implements CompanyImportService {
+
+    private final CompanyService companyService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${company.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void importCompanies(MediaType contentType, InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        CompanyRowReader rowReader = CompanyRowReader.of(contentType, reader, objectMapper);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while ((row = rowReader.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                this.importChunk(chunk, output);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.importChunk(chunk, output);
+        }
+    }
+
+    /**
+     * Creates the valid rows of the chunk in one transaction through {@link CompanyService#createBatch} and writes
+     * one report line per row, in input order.
+     */
+    private void importChunk(List<ImportRow> chunk, OutputStream output) throws IOException {
+        ImportRowResultDto[] results = new ImportRowResultDto[chunk.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<CreateCompanyDto> companies = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRow row = chunk.get(i);
+            if (row.getError() != null || row.getCompany() == null) {
+                String message = row.getError() != null ? row.getError() : CompanyErrorMessages.EMPTY_IMPORT_ROW;
+                results[i] = this.result(row, ImportRowResultDto.Status.INVALID).message(message).build();
+                continue;
+            }
+            Set<ConstraintViolation<CreateCompanyDto>> violations = validator.validate(row.getCompany());
+            if (violations.isEmpty()) {
+                positions.add(i);
+                companies.add(row.getCompany());
+            } else {
+                results[i] = this.result(row, ImportRowResultDto.Status.INVALID).errors(errorsOf(violations)).build();
+            }
+        }
+
+        if (!companies.isEmpty()) {
+            try {
+                BatchCreateResponseDto response = companyService.createBatch(BatchCreateCompanyDto.builder()
+                        .companies(companies)
+                        .build());
+                for (int j = 0; j < positions.size(); j++) {
+                    BatchItemResultDto item = response.getResults().get(j);
+                    ImportRow row = chunk.get(positions.get(j));
+                    results[positions.get(j)] = item.getStatus() == BatchItemResultDto.Status.CREATED
+                            ? this.result(row, ImportRowResultDto.Status.CREATED).id(item.getCompany().getId()).build()
+                            : this.result(row, ImportRowResultDto.Status.CONFLICT).message(item.getMessage()).build();
+                }
+            } catch (GeneralException e) {
+                for (int position : positions) {
+                    results[position] = this.result(chunk.get(position), ImportRowResultDto.Status.FAILED)
+                            .message(e.getMessage())
+                            .build();
+                }
+            }
+        }
+
+        for (ImportRowResultDto result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private ImportRowResultDto.ImportRowResultDtoBuilder result(ImportRow row, ImportRowResultDto.Status status) {
+        return ImportRowResultDto.builder()
+                .line(row.getLine())
+                .status(status)
+                .nit(row.getCompany() != null ? row.getCompany().getNit() : null);
+    }
+
+    private static Map<String, String> errorsOf(Set<ConstraintViolation<CreateCompanyDto>> violations) {
+        return violations.stream().collect(Collectors.toMap(
+                violation -> violation.getPropertyPath().toString(),
+                ConstraintViolation::getMessage,
+                (error1, error2) -> error1 + "; " + error2));
+    }
+}
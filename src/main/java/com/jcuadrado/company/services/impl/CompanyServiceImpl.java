@@ -1,116 +1,500 @@
 package com.jcuadrado.company.services.impl;
 
+import com.jcuadrado.company.constants.CacheNames;
 import com.jcuadrado.company.constants.CompanyErrorMessages;
 import com.jcuadrado.company.dtos.*;
 import com.jcuadrado.company.entities.Company;
 import com.jcuadrado.company.exceptions.GeneralException;
 import com.jcuadrado.company.mappers.CompanyMapper;
+import com.jcuadrado.company.pagination.CompanyCursor;
+import com.jcuadrado.company.repositories.CompanyChangesRepository;
 import com.jcuadrado.company.repositories.CompanyRepository;
+import com.jcuadrado.company.search.CompanySearchIndex;
+import com.jcuadrado.company.search.SearchPatterns;
 import com.jcuadrado.company.services.CompanyService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CompanyServiceImpl implements CompanyService {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final CompanyRepository companyRepository;
+    private final CompanyChangesRepository companyChangesRepository;
     private final CompanyMapper companyMapper;
+    private final CompanySearchIndex companySearchIndex;
+
+    /**
+     * Set when the after-commit bump of the change counter failed and still has to be made.
+     */
+    private final AtomicBoolean changePending = new AtomicBoolean();
+
+    @Value("${company.create.on-conflict-insert:false}")
+    private boolean onConflictInsert;
+
+    @Value("${company.delete.soft:false}")
+    private boolean softDelete;
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.COMPANIES, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheNames.COMPANY_COUNTS, allEntries = true))
+    @Transactional
     public CompanyDto create(CreateCompanyDto createCompanyDto) {
-        this.validateNitExists(createCompanyDto.getNit(), null);
+        Optional<Company> savedCompany;
         try {
             Company company = companyMapper.toCompany(createCompanyDto);
-            Company savedCompany = companyRepository.save(company);
-            return companyMapper.toCompanyDto(savedCompany);
+            savedCompany = onConflictInsert
+                    ? this.insertIgnoringNitConflict(company)
+                    : Optional.of(companyRepository.save(company));
+            companyRepository.flush();
+            if (savedCompany.isPresent()) {
+                this.recordChange();
+            }
         } catch (DataIntegrityViolationException e) {
-            throw new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.DATA_INTEGRITY_ERROR);
+            throw this.toConflict(e);
         } catch (Exception e) {
-            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            throw this.toServiceException(e);
         }
+        CompanyDto savedCompanyDto = companyMapper.toCompanyDto(savedCompany
+                .orElseThrow(() -> new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.COMPANY_ALREADY_EXISTS)));
+        this.afterCommit(() -> companySearchIndex.index(savedCompanyDto));
+        return savedCompanyDto;
+    }
+
+    private Optional<Company> insertIgnoringNitConflict(Company company) {
+        return companyRepository
+                .insertIgnoringNitConflict(company.getNit(), company.getName(), company.getAddress(), company.getPhone())
+                .map(id -> {
+                    company.setId(id);
+                    company.setVersion(0L);
+                    return company;
+                });
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMPANY_COUNTS, allEntries = true)
+    public BatchCreateResponseDto createBatch(BatchCreateCompanyDto batchCreateCompanyDto) {
+        List<CreateCompanyDto> items = batchCreateCompanyDto.getCompanies();
+        BatchItemResultDto[] results = new BatchItemResultDto[items.size()];
+        Map<Integer, Company> pending = new LinkedHashMap<>();
+        try {
+            Set<String> takenNits = new HashSet<>(companyRepository.findExistingNits(
+                    items.stream().map(CreateCompanyDto::getNit).toList()));
+            for (int i = 0; i < items.size(); i++) {
+                CreateCompanyDto item = items.get(i);
+                if (takenNits.add(item.getNit())) {
+                    pending.put(i, companyMapper.toCompany(item));
+                } else {
+                    results[i] = BatchItemResultDto.builder()
+                            .index(i)
+                            .status(BatchItemResultDto.Status.CONFLICT)
+                            .message(String.format(CompanyErrorMessages.NIT_ALREADY_EXISTS, item.getNit()))
+                            .build();
+                }
+            }
+            companyRepository.saveAll(pending.values());
+            companyRepository.flush();
+            if (!pending.isEmpty()) {
+                this.recordChange();
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw this.toConflict(e);
+        } catch (Exception e) {
+            throw this.toServiceException(e);
+        }
+        pending.forEach((i, company) -> {
+            CompanyDto companyDto = companyMapper.toCompanyDto(company);
+            this.afterCommit(() -> companySearchIndex.index(companyDto));
+            results[i] = BatchItemResultDto.builder()
+                    .index(i)
+                    .status(BatchItemResultDto.Status.CREATED)
+                    .company(companyDto)
+                    .build();
+        });
+        return BatchCreateResponseDto.builder()
+                .created(pending.size())
+                .conflicts(items.size() - pending.size())
+                .results(Arrays.asList(results))
+                .build();
     }
 
     @Override
     public PaginatedResponseDto<CompanyDto> getAll(PaginationQueryDto queryDto) {
+        CompanyCursor cursor = queryDto.getAfter() != null && !queryDto.getAfter().isBlank()
+                ? CompanyCursor.decode(queryDto.getAfter())
+                : null;
+        String pattern = SearchPatterns.toContainsPattern(queryDto.getSearch());
+        boolean active = !Boolean.FALSE.equals(queryDto.getIsActive());
+        boolean indexed = pattern != null && active && companySearchIndex.supports(queryDto.getSearch());
+        if (indexed && cursor != null && cursor.isInIndexOrder()) {
+            if (!companySearchIndex.isReady()) {
+                throw new GeneralException(HttpStatus.SERVICE_UNAVAILABLE, CompanyErrorMessages.SEARCH_INDEX_LOADING);
+            }
+            return this.getAllFromIndex(queryDto, cursor);
+        }
+        if (indexed && cursor == null && companySearchIndex.isReady()) {
+            return this.getAllFromIndex(queryDto, null);
+        }
+        return cursor == null
+                ? this.getAllByPage(queryDto, pattern, active)
+                : this.getAllAfter(queryDto, pattern, active, cursor);
+    }
+
+    private PaginatedResponseDto<CompanyDto> getAllByPage(PaginationQueryDto queryDto, String pattern, boolean active) {
         try {
             int page = queryDto.getPage() <= 1 ? 0 : queryDto.getPage() - 1;
-            Pageable pageable = PageRequest.of(page, queryDto.getSize(), Sort.Direction.ASC, "name");
-            Page<Company> companyPage = companyRepository.findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(
-                    queryDto.getSearch(),
-                    queryDto.getSearch(),
-                    pageable
-            );
+            Pageable pageable = PageRequest.of(page, queryDto.getSize(), Sort.Direction.ASC, "name", "id");
+            Slice<CompanyDto> companySlice = queryDto.getFields() != null
+                    ? companyRepository.findSliceWithFields(queryDto.getFields(), pattern, active, pageable)
+                    : pattern == null
+                    ? companyRepository.findSlice(active, pageable)
+                    : companyRepository.search(pattern, active, pageable);
+            List<CompanyDto> content = companySlice.getContent();
+            PaginatedResponseDto.PaginatedResponseDtoBuilder<CompanyDto> response = PaginatedResponseDto.<CompanyDto>builder()
+                    .data(content)
+                    .pageSize(companySlice.getSize())
+                    .currentPage(companySlice.getNumber() + 1)
+                    .hasNext(companySlice.hasNext())
+                    .nextCursor(companySlice.hasNext() ? this.cursorOf(content) : null);
+            if (!Boolean.FALSE.equals(queryDto.getCount())) {
+                Page<CompanyDto> companyPage = PageableExecutionUtils.getPage(content, pageable, () -> pattern == null
+                        ? companyRepository.countAll(active)
+                        : companyRepository.countBySearch(pattern, active));
+                response.totalElements(companyPage.getTotalElements())
+                        .totalPages(companyPage.getTotalPages());
+            }
+            return response.build();
+        } catch (Exception e) {
+            throw this.toServiceException(e);
+        }
+    }
+
+    private PaginatedResponseDto<CompanyDto> getAllAfter(PaginationQueryDto queryDto, String pattern, boolean active, CompanyCursor cursor) {
+        try {
+            Limit limit = Limit.of(queryDto.getSize() + 1);
+            List<CompanyDto> companies = queryDto.getFields() != null
+                    ? companyRepository.findPageAfterWithFields(queryDto.getFields(), pattern, active, cursor.getName(), cursor.getId(), limit)
+                    : pattern == null
+                    ? companyRepository.findPageAfter(active, cursor.getName(), cursor.getId(), limit)
+                    : companyRepository.searchPageAfter(pattern, active, cursor.getName(), cursor.getId(), limit);
+            boolean hasNext = companies.size() > queryDto.getSize();
+            List<CompanyDto> content = hasNext ? companies.subList(0, queryDto.getSize()) : companies;
             return PaginatedResponseDto.<CompanyDto>builder()
-                    .data(companyMapper.toCompanyDtoList(companyPage.getContent()))
-                    .totalElements(companyPage.getTotalElements())
-                    .totalPages(companyPage.getTotalPages())
-                    .pageSize(companyPage.getSize())
-                    .currentPage(companyPage.getNumber() + 1)
+                    .data(content)
+                    .pageSize(queryDto.getSize())
+                    .hasNext(hasNext)
+                    .nextCursor(hasNext ? this.cursorOf(content) : null)
                     .build();
         } catch (Exception e) {
-            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            throw this.toServiceException(e);
+        }
+    }
+
+    /**
+     * Pages from the index follow its order, not the database collation, so their cursors are marked to keep the
+     * rest of the listing on the index.
+     */
+    private PaginatedResponseDto<CompanyDto> getAllFromIndex(PaginationQueryDto queryDto, CompanyCursor cursor) {
+        int size = queryDto.getSize();
+        int page = queryDto.getPage() <= 1 ? 0 : queryDto.getPage() - 1;
+        CompanySearchIndex.SearchPage result = cursor == null
+                ? companySearchIndex.search(queryDto.getSearch(), null, (int) Math.min((long) page * size, Integer.MAX_VALUE), size)
+                : companySearchIndex.search(queryDto.getSearch(), CompanyDto.builder().name(cursor.getName()).id(cursor.getId()).build(), 0, size);
+        List<CompanyDto> keys = result.getContent();
+        CompanyDto last = keys.isEmpty() ? null : keys.get(keys.size() - 1);
+        PaginatedResponseDto.PaginatedResponseDtoBuilder<CompanyDto> response = PaginatedResponseDto.<CompanyDto>builder()
+                .data(this.findIndexedRows(keys, queryDto.getFields()))
+                .pageSize(size)
+                .hasNext(result.isHasNext())
+                .nextCursor(result.isHasNext() ? new CompanyCursor(last.getName(), last.getId(), true).encode() : null);
+        if (cursor == null) {
+            response.currentPage(page + 1);
+        }
+        if (cursor == null && !Boolean.FALSE.equals(queryDto.getCount())) {
+            response.totalElements((long) result.getTotal())
+                    .totalPages((result.getTotal() + size - 1) / size);
+        }
+        return response.build();
+    }
+
+    /**
+     * Loads the rows of a page found in the index, in index order. A row deleted or deactivated since the index saw
+     * it is left out rather than shown stale.
+     */
+    private List<CompanyDto> findIndexedRows(List<CompanyDto> keys, Set<CompanyField> fields) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = keys.stream().map(CompanyDto::getId).toList();
+        Map<Long, CompanyDto> rows = new HashMap<>();
+        try {
+            for (CompanyDto row : fields != null
+                    ? companyRepository.findActiveByIdsWithFields(fields, ids)
+                    : companyRepository.findActiveByIds(ids)) {
+                rows.put(row.getId(), row);
+            }
+        } catch (Exception e) {
+            throw this.toServiceException(e);
         }
+        return ids.stream().map(rows::get).filter(Objects::nonNull).toList();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.COMPANIES, key = "#id")
     public CompanyDto getById(Long id) {
-        Optional<Company> company;
+        Optional<CompanyDto> company;
         try {
-            company = this.companyRepository.findById(id);
+            company = this.companyRepository.findDtoById(id);
         } catch (Exception e) {
-            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            throw this.toServiceException(e);
         }
         if (company.isPresent()) {
-            return companyMapper.toCompanyDto(company.get());
+            return company.get();
         }
         throw new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND);
     }
 
     @Override
-    public CompanyDto update(Long id, UpdateCompanyDto updateCompanyDto) {
-        CompanyDto companyDtoFound = this.getById(id);
-        validateNitExists(updateCompanyDto.getNit(), id);
+    public long getVersion(Long id) {
+        return this.getVersionIfPresent(id)
+                .orElseThrow(() -> new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND));
+    }
+
+    private Optional<Long> getVersionIfPresent(Long id) {
         try {
-            CompanyDto mergedDto = CompanyDto.builder()
-                    .id(companyDtoFound.getId())
-                    .name(updateCompanyDto.getName() != null ? updateCompanyDto.getName() : companyDtoFound.getName())
-                    .nit(updateCompanyDto.getNit() != null ? updateCompanyDto.getNit() : companyDtoFound.getNit())
-                    .address(updateCompanyDto.getAddress() != null ? updateCompanyDto.getAddress() : companyDtoFound.getAddress())
-                    .phone(updateCompanyDto.getPhone() != null ? updateCompanyDto.getPhone() : companyDtoFound.getPhone())
-                    .build();
-            Company company = companyMapper.toCompany(mergedDto);
-            Company updatedCompany = this.companyRepository.save(company);
-            return companyMapper.toCompanyDto(updatedCompany);
-        }catch (DataIntegrityViolationException e){
-            throw new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.DATA_INTEGRITY_ERROR);
-        }catch (Exception e){
-            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            return this.companyRepository.findVersionById(id);
+        } catch (Exception e) {
+            throw this.toServiceException(e);
+        }
+    }
+
+    @Override
+    public long getChanges() {
+        try {
+            this.retryPendingChange();
+            return companyChangesRepository.findChanges().orElse(0L);
+        } catch (Exception e) {
+            throw this.toServiceException(e);
         }
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.COMPANIES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheNames.COMPANY_COUNTS, allEntries = true))
+    @Transactional
+    public CompanyDto update(Long id, UpdateCompanyDto updateCompanyDto, Long expectedVersion) {
+        return this.applyUpdate(id, () -> companyRepository.updateCompanyById(id, expectedVersion,
+                updateCompanyDto.getName(), updateCompanyDto.getNit(), updateCompanyDto.getAddress(),
+                updateCompanyDto.getPhone(), updateCompanyDto.getActive()));
+    }
+
+    @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.COMPANIES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheNames.COMPANY_COUNTS, allEntries = true))
+    @Transactional
+    public CompanyDto patch(Long id, PatchCompanyDto patchCompanyDto, Long expectedVersion) {
+        Map<String, Object> changes = patchCompanyDto.getChanges();
+        for (String field : PatchCompanyDto.REQUIRED_FIELDS) {
+            if (changes.containsKey(field) && changes.get(field) == null) {
+                throw new GeneralException(HttpStatus.BAD_REQUEST, String.format(CompanyErrorMessages.FIELD_CANNOT_BE_REMOVED, field));
+            }
+        }
+        if (changes.isEmpty()) {
+            CompanyDto company = this.getById(id);
+            if (expectedVersion != null && !expectedVersion.equals(company.getVersion())) {
+                throw new GeneralException(HttpStatus.PRECONDITION_FAILED, CompanyErrorMessages.COMPANY_VERSION_MISMATCH);
+            }
+            return company;
+        }
+        return this.applyUpdate(id, () -> companyRepository.patchCompanyById(id, expectedVersion, changes));
+    }
+
+    private CompanyDto applyUpdate(Long id, IntSupplier statement) {
+        Optional<CompanyDto> updatedCompany;
+        try {
+            int updated = statement.getAsInt();
+            updatedCompany = updated == 0 ? Optional.empty() : companyRepository.findDtoById(id);
+            if (updatedCompany.isPresent()) {
+                this.recordChange();
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw this.toConflict(e);
+        } catch (Exception e) {
+            throw this.toServiceException(e);
+        }
+        CompanyDto updatedCompanyDto = updatedCompany.orElseThrow(() -> this.toUpdateFailure(id));
+        this.afterCommit(() -> {
+            if (Boolean.FALSE.equals(updatedCompanyDto.getActive())) {
+                companySearchIndex.remove(id);
+            } else {
+                companySearchIndex.index(updatedCompanyDto);
+            }
+        });
+        return updatedCompanyDto;
+    }
+
+    /**
+     * A conditional update that matched no row either targeted a missing company or lost the race to another write.
+     */
+    private GeneralException toUpdateFailure(Long id) {
+        return this.getVersionIfPresent(id).isPresent()
+                ? new GeneralException(HttpStatus.PRECONDITION_FAILED, CompanyErrorMessages.COMPANY_VERSION_MISMATCH)
+                : new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.COMPANIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.COMPANY_COUNTS, allEntries = true)})
+    @Transactional
     public void delete(Long id) {
-        this.getById(id);
+        int deleted;
         try {
-            companyRepository.deleteById(id);
+            deleted = softDelete
+                    ? companyRepository.deactivateCompanyById(id)
+                    : companyRepository.deleteCompanyById(id);
+            if (deleted > 0) {
+                this.recordChange();
+            }
         } catch (Exception e) {
-            throw new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            throw this.toServiceException(e);
+        }
+        if (deleted == 0) {
+            throw new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND);
         }
+        this.afterCommit(() -> companySearchIndex.remove(id));
     }
 
-    private void validateNitExists(String nit, Long excludeId) {
-        Optional<Company> existingCompany = this.companyRepository.findByNit(nit);
-        if (existingCompany.isPresent() && (excludeId == null || !existingCompany.get().getId().equals(excludeId))) {
-            throw new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.COMPANY_ALREADY_EXISTS);
+    /**
+     * Bumps the collection change counter inside the caller's transaction and again once it commits, both on the
+     * transaction's own connection. A sequence value is not transactional, so a listing may read the first bump
+     * together with the old rows; the second one invalidates whatever it cached under that value.
+     */
+    private void recordChange() {
+        companyChangesRepository.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.afterCommit(this::recordCommittedChange);
         }
     }
+
+    /**
+     * Runs the action once the caller's transaction commits, or right away outside one, so that a write rolled back
+     * at flush or commit never reaches the search index.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * A failed bump is retried by the next listing before it reads the counter, instead of letting it answer 304
+     * for rows that have changed.
+     */
+    private void recordCommittedChange() {
+        try {
+            companyChangesRepository.increment();
+        } catch (Exception e) {
+            changePending.set(true);
+            log.warn("Could not bump the company change counter after commit; the next listing retries it", e);
+        }
+    }
+
+    private void retryPendingChange() {
+        if (changePending.getAndSet(false)) {
+            try {
+                companyChangesRepository.increment();
+            } catch (RuntimeException e) {
+                changePending.set(true);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Keeps connection failures as they are so the advice answers 503 with Retry-After; anything else is a 500.
+     */
+    private RuntimeException toServiceException(Exception e) {
+        if (e instanceof CannotCreateTransactionException || e instanceof DataAccessResourceFailureException) {
+            return (RuntimeException) e;
+        }
+        return new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+    }
+
+    /**
+     * A duplicate NIT is recognised by the constraint name, or, for a unique key created under another name, by a
+     * unique violation (SQLState 23505) whose message names the nit column.
+     */
+    private GeneralException toConflict(DataIntegrityViolationException e) {
+        boolean nitTaken = e.getCause() instanceof ConstraintViolationException violation
+                && (isNitConstraint(violation.getConstraintName()) || isNitUniqueViolation(violation));
+        return new GeneralException(HttpStatus.CONFLICT, nitTaken
+                ? CompanyErrorMessages.COMPANY_ALREADY_EXISTS
+                : CompanyErrorMessages.DATA_INTEGRITY_ERROR);
+    }
+
+    private static boolean isNitConstraint(String constraintName) {
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Company.NIT_CONSTRAINT);
+    }
+
+    private static boolean isNitUniqueViolation(ConstraintViolationException violation) {
+        return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                && violation.getMessage() != null
+                && violation.getMessage().toLowerCase(Locale.ROOT).contains("(nit");
+    }
+
+    private String cursorOf(List<CompanyDto> content) {
+        CompanyDto last = content.get(content.size() - 1);
+        return new CompanyCursor(last.getName(), last.getId()).encode();
+    }
 }
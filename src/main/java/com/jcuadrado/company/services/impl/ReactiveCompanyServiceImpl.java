@@ -0,0 +1,239 @@
+package com.jcuadrado.company.services.impl;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.*;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.pagination.CompanyCursor;
+import com.jcuadrado.company.repositories.ReactiveCompanyRepository;
+import com.jcuadrado.company.search.SearchPatterns;
+import com.jcuadrado.company.services.ReactiveCompanyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Same contract and error mapping as {@link CompanyServiceImpl}, on R2DBC. Every write bumps the change counter in
+ * its own transaction. The in-memory search index and the Caffeine caches belong to the servlet stack and are not
+ * used here: every read goes to the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCompanyServiceImpl implements ReactiveCompanyService {
+
+    private final ReactiveCompanyRepository companyRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Set when the after-commit bump of the change counter failed and still has to be made.
+     */
+    private final AtomicBoolean changePending = new AtomicBoolean();
+
+    @Value("${company.delete.soft:false}")
+    private boolean softDelete;
+
+    @Override
+    public Mono<CompanyDto> create(CreateCompanyDto createCompanyDto) {
+        return companyRepository.nextId()
+                .flatMap(id -> companyRepository.insert(id, createCompanyDto.getNit(), createCompanyDto.getName(),
+                                createCompanyDto.getAddress(), createCompanyDto.getPhone())
+                        .then(this.recordChange())
+                        .then(companyRepository.findDtoById(id)))
+                .as(transactionalOperator::transactional)
+                .flatMap(company -> this.recordCommittedChange().thenReturn(company))
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    public Mono<PaginatedResponseDto<CompanyDto>> getAll(PaginationQueryDto queryDto) {
+        return Mono.defer(() -> {
+            CompanyCursor cursor = queryDto.getAfter() != null && !queryDto.getAfter().isBlank()
+                    ? CompanyCursor.decode(queryDto.getAfter())
+                    : null;
+            String pattern = SearchPatterns.toContainsPattern(queryDto.getSearch());
+            boolean active = !Boolean.FALSE.equals(queryDto.getIsActive());
+            return cursor == null
+                    ? this.getAllByPage(queryDto, pattern, active)
+                    : this.getAllAfter(queryDto, pattern, active, cursor);
+        }).onErrorMap(this::toServiceException);
+    }
+
+    private Mono<PaginatedResponseDto<CompanyDto>> getAllByPage(PaginationQueryDto queryDto, String pattern, boolean active) {
+        int page = queryDto.getPage() <= 1 ? 0 : queryDto.getPage() - 1;
+        int size = queryDto.getSize();
+        Mono<PaginatedResponseDto<CompanyDto>> response = companyRepository
+                .findPage(queryDto.getFields(), pattern, active, size + 1, (long) page * size)
+                .collectList()
+                .map(companies -> {
+                    boolean hasNext = companies.size() > size;
+                    List<CompanyDto> content = hasNext ? companies.subList(0, size) : companies;
+                    return PaginatedResponseDto.<CompanyDto>builder()
+                            .data(content)
+                            .pageSize(size)
+                            .currentPage(page + 1)
+                            .hasNext(hasNext)
+                            .nextCursor(hasNext ? this.cursorOf(content) : null)
+                            .build();
+                });
+        if (Boolean.FALSE.equals(queryDto.getCount())) {
+            return response;
+        }
+        return response.zipWith(companyRepository.count(pattern, active), (paginated, total) -> {
+            paginated.setTotalElements(total);
+            paginated.setTotalPages((int) ((total + size - 1) / size));
+            return paginated;
+        });
+    }
+
+    private Mono<PaginatedResponseDto<CompanyDto>> getAllAfter(PaginationQueryDto queryDto, String pattern, boolean active, CompanyCursor cursor) {
+        int size = queryDto.getSize();
+        return companyRepository
+                .findPageAfter(queryDto.getFields(), pattern, active, cursor.getName(), cursor.getId(), size + 1)
+                .collectList()
+                .map(companies -> {
+                    boolean hasNext = companies.size() > size;
+                    List<CompanyDto> content = hasNext ? companies.subList(0, size) : companies;
+                    return PaginatedResponseDto.<CompanyDto>builder()
+                            .data(content)
+                            .pageSize(size)
+                            .hasNext(hasNext)
+                            .nextCursor(hasNext ? this.cursorOf(content) : null)
+                            .build();
+                });
+    }
+
+    @Override
+    public Mono<CompanyDto> getById(Long id) {
+        return companyRepository.findDtoById(id)
+                .onErrorMap(this::toServiceException)
+                .switchIfEmpty(Mono.error(() -> new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<Long> getVersion(Long id) {
+        return companyRepository.findVersionById(id)
+                .onErrorMap(this::toServiceException)
+                .switchIfEmpty(Mono.error(() -> new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND)));
+    }
+
+    @Override
+    public Mono<Long> getChanges() {
+        return Mono.defer(() -> changePending.getAndSet(false)
+                        ? this.recordChange().doOnError(e -> changePending.set(true)).then()
+                        : Mono.<Void>empty())
+                .then(companyRepository.findChanges())
+                .defaultIfEmpty(0L)
+                .onErrorMap(this::toServiceException);
+    }
+
+    @Override
+    public Mono<CompanyDto> update(Long id, UpdateCompanyDto updateCompanyDto, Long expectedVersion) {
+        return this.applyUpdate(id, companyRepository.update(id, expectedVersion, updateCompanyDto.getName(),
+                updateCompanyDto.getNit(), updateCompanyDto.getAddress(), updateCompanyDto.getPhone(),
+                updateCompanyDto.getActive()));
+    }
+
+    @Override
+    public Mono<CompanyDto> patch(Long id, PatchCompanyDto patchCompanyDto, Long expectedVersion) {
+        Map<String, Object> changes = patchCompanyDto.getChanges();
+        for (String field : PatchCompanyDto.REQUIRED_FIELDS) {
+            if (changes.containsKey(field) && changes.get(field) == null) {
+                return Mono.error(new GeneralException(HttpStatus.BAD_REQUEST, String.format(CompanyErrorMessages.FIELD_CANNOT_BE_REMOVED, field)));
+            }
+        }
+        if (changes.isEmpty()) {
+            return this.getById(id).flatMap(company -> expectedVersion != null && !expectedVersion.equals(company.getVersion())
+                    ? Mono.error(new GeneralException(HttpStatus.PRECONDITION_FAILED, CompanyErrorMessages.COMPANY_VERSION_MISMATCH))
+                    : Mono.just(company));
+        }
+        return this.applyUpdate(id, companyRepository.patch(id, expectedVersion, changes));
+    }
+
+    private Mono<CompanyDto> applyUpdate(Long id, Mono<Long> statement) {
+        return statement
+                .flatMap(updated -> updated == 0 ? Mono.<CompanyDto>empty() : companyRepository.findDtoById(id))
+                .flatMap(company -> this.recordChange().thenReturn(company))
+                .as(transactionalOperator::transactional)
+                .flatMap(company -> this.recordCommittedChange().thenReturn(company))
+                .onErrorMap(this::toServiceException)
+                .switchIfEmpty(Mono.defer(() -> this.toUpdateFailure(id)));
+    }
+
+    /**
+     * A conditional update that matched no row either targeted a missing company or lost the race to another write.
+     */
+    private Mono<CompanyDto> toUpdateFailure(Long id) {
+        return companyRepository.findVersionById(id)
+                .map(version -> new GeneralException(HttpStatus.PRECONDITION_FAILED, CompanyErrorMessages.COMPANY_VERSION_MISMATCH))
+                .defaultIfEmpty(new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND))
+                .flatMap(Mono::error);
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        return (softDelete ? companyRepository.deactivateById(id) : companyRepository.deleteById(id))
+                .flatMap(deleted -> deleted > 0 ? this.recordChange().thenReturn(deleted) : Mono.just(deleted))
+                .as(transactionalOperator::transactional)
+                .flatMap(deleted -> deleted > 0 ? this.recordCommittedChange().thenReturn(deleted) : Mono.just(deleted))
+                .onErrorMap(this::toServiceException)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new GeneralException(HttpStatus.NOT_FOUND, CompanyErrorMessages.COMPANY_NOT_FOUND))
+                        : Mono.empty());
+    }
+
+    /**
+     * Bumps the collection change counter inside the write's transaction. A sequence value is not transactional, so
+     * a listing may read it together with the old rows; {@link #recordCommittedChange()} bumps it again once the
+     * write has committed.
+     */
+    private Mono<Long> recordChange() {
+        return Mono.defer(companyRepository::incrementChanges);
+    }
+
+    /**
+     * A failed bump is retried by the next listing before it reads the counter, instead of letting it answer 304
+     * for rows that have changed.
+     */
+    private Mono<Long> recordCommittedChange() {
+        return this.recordChange()
+                .onErrorResume(e -> {
+                    changePending.set(true);
+                    log.warn("Could not bump the company change counter after commit; the next listing retries it", e);
+                    return Mono.empty();
+                });
+    }
+
+    private Throwable toServiceException(Throwable e) {
+        if (e instanceof GeneralException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException) {
+            return e;
+        }
+        if (e instanceof DuplicateKeyException) {
+            return new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.COMPANY_ALREADY_EXISTS);
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.DATA_INTEGRITY_ERROR);
+        }
+        return new GeneralException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+    }
+
+    private String cursorOf(List<CompanyDto> content) {
+        CompanyDto last = content.get(content.size() - 1);
+        return new CompanyCursor(last.getName(), last.getId()).encode();
+    }
+}
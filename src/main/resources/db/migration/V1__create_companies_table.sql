@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS companies (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nit     VARCHAR(255) NOT NULL,
+    name    VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    phone   VARCHAR(255),
+    CONSTRAINT uk_companies_nit UNIQUE (nit)
+);
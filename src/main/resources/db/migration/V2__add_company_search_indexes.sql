@@ -0,0 +1,9 @@
+-- Trigram GIN indexes serve the lower(column) LIKE '%term%' predicates used by the company search,
+-- so a search only visits matching rows instead of scanning the whole table.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_companies_name_trgm ON companies USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_companies_nit_trgm ON companies USING gin (lower(nit) gin_trgm_ops);
+
+-- Serves the (name, id) ordering and keyset seeks of the listing.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_companies_name_id ON companies (name, id);
@@ -0,0 +1,9 @@
+-- Hibernate preallocates ids in blocks of 50 (pooled optimizer), which lets it batch INSERTs.
+-- The sequence starts one block past the current maximum so preallocated ranges never overlap existing ids.
+CREATE SEQUENCE IF NOT EXISTS companies_seq INCREMENT BY 50;
+SELECT setval('companies_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM companies), false);
+
+-- Native inserts (ON CONFLICT create path) keep drawing ids from the same sequence.
+ALTER TABLE companies ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE companies ALTER COLUMN id SET DEFAULT nextval('companies_seq');
+ALTER SEQUENCE companies_seq OWNED BY companies.id;
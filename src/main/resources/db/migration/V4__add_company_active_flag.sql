@@ -0,0 +1,2 @@
+-- A constant default makes this a metadata-only change; existing rows read as active.
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS active BOOLEAN NOT NULL DEFAULT TRUE;
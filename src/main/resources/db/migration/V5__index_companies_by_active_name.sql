@@ -0,0 +1,7 @@
+-- Every listing now filters on active = ? before ordering by (name, id), so the keyset index leads with active:
+-- listing active companies seeks straight into the active range and never reads inactive rows.
+-- A partial index (WHERE active) would not be chosen for the parameterized predicate once PostgreSQL switches
+-- to a generic plan, so the flag is a key column instead.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_companies_active_name_id ON companies (active, name, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_companies_name_id;
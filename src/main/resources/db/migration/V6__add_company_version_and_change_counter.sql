@@ -0,0 +1,9 @@
+-- Optimistic-locking version per company, used as its ETag.
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Single-row counter bumped in the same transaction as every write to companies; the collection ETag.
+CREATE TABLE IF NOT EXISTS company_changes (
+    id      INTEGER PRIMARY KEY,
+    changes BIGINT NOT NULL
+);
+INSERT INTO company_changes (id, changes) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
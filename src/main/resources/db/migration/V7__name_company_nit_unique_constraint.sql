@@ -0,0 +1,22 @@
+-- Schemas first created by Hibernate and baselined at version 0 kept a generated name for the unique key on nit,
+-- while the services recognise a duplicate NIT by the name uk_companies_nit. Rename that key, or add it if missing.
+DO $$
+DECLARE
+    existing TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'companies'::regclass AND conname = 'uk_companies_nit') THEN
+        SELECT c.conname INTO existing
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attname = 'nit'
+        WHERE c.conrelid = 'companies'::regclass
+          AND c.contype = 'u'
+          AND c.conkey = ARRAY[a.attnum]
+        LIMIT 1;
+        IF existing IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE companies RENAME CONSTRAINT %I TO uk_companies_nit', existing);
+        ELSE
+            ALTER TABLE companies ADD CONSTRAINT uk_companies_nit UNIQUE (nit);
+        END IF;
+    END IF;
+END $$;
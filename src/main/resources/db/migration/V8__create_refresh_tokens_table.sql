@@ -0,0 +1,13 @@
+-- Refresh tokens shared by every instance, stored by the hex SHA-256 of their value. A token is single use
+-- (used); reusing one revokes every token of its family (revoked).
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_digest VARCHAR(64) PRIMARY KEY,
+    username     VARCHAR(255) NOT NULL,
+    family       VARCHAR(36) NOT NULL,
+    expires_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    used         BOOLEAN NOT NULL DEFAULT FALSE,
+    revoked      BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
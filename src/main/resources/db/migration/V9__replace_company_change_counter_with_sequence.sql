@@ -0,0 +1,6 @@
+-- The single-row counter made every write to companies queue on the same row lock. A sequence value is taken
+-- without locking, after the write commits; the view keeps the name and column the listing ETag is read from.
+CREATE SEQUENCE IF NOT EXISTS company_changes_seq;
+SELECT setval('company_changes_seq', GREATEST((SELECT changes FROM company_changes WHERE id = 1), 1), true);
+DROP TABLE company_changes;
+CREATE VIEW company_changes AS SELECT last_value AS changes FROM company_changes_seq;
@@ -8,11 +8,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -23,6 +25,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -212,6 +215,32 @@ class GeneralControllerAdviceTest {
         assertTrue(response.getBody().getMessage().contains("/api/test"));
     }
 
+    @Test
+    @DisplayName("Test handleDatabaseUnavailableException returns 503 with Retry-After")
+    void testHandleDatabaseUnavailableException() {
+        Exception exception = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+        ResponseEntity<ErrorResponse> response = generalControllerAdvice.handleDatabaseUnavailableException(exception);
+        assertNotNull(response);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals(503, response.getBody().getStatus());
+        assertEquals("Service Unavailable", response.getBody().getError());
+    }
+
+    @Test
+    @DisplayName("Test handleRejectedExecutionException returns too many requests")
+    void testHandleRejectedExecutionException() {
+        RejectedExecutionException exception = new RejectedExecutionException("Login executor is full");
+        ResponseEntity<ErrorResponse> response = generalControllerAdvice.handleRejectedExecutionException(exception);
+        assertNotNull(response);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals(429, response.getBody().getStatus());
+        assertEquals("Too Many Requests", response.getBody().getError());
+    }
+
     @Test
     @DisplayName("Test handleException")
     void testHandleException() {
@@ -0,0 +1,67 @@
+package com.jcuadrado.company.benchmarks;
+
+import com.jcuadrado.company.config.UserConfig;
+import com.jcuadrado.company.dtos.AuthDto;
+import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.security.InMemoryRefreshTokenStore;
+import com.jcuadrado.company.security.JwtService;
+import com.jcuadrado.company.security.RefreshTokenService;
+import com.jcuadrado.company.services.impl.AuthServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of renewing an access token: {@code login} verifies the password with BCrypt (strength 10) through
+ * {@code DaoAuthenticationProvider}, as every client did hourly before refresh tokens; {@code refresh} rotates a
+ * refresh token and signs a new access token without touching the password encoder. Tokens are kept in an in-memory
+ * store, so {@code refresh} leaves out its round trips to the {@code refresh_tokens} table.
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=AuthRefreshBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthRefreshBenchmark {
+
+    private static final String SECRET_KEY = "testSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789";
+
+    private AuthServiceImpl authService;
+    private LoginRequestDto loginRequest;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserConfig userConfig = new UserConfig();
+        UserDetailsService userDetailsService = userConfig.userDetailsService();
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
+        authProvider.setPasswordEncoder(userConfig.passwordEncoder());
+
+        authService = new AuthServiceImpl(
+                new ProviderManager(authProvider),
+                new JwtService(SECRET_KEY, 3_600_000L, 10_000),
+                new RefreshTokenService(new InMemoryRefreshTokenStore(), 1_209_600_000L),
+                userDetailsService);
+        loginRequest = new LoginRequestDto("admin", "admin");
+        refreshToken = authService.login(loginRequest).getRefreshToken();
+    }
+
+    @Benchmark
+    public AuthDto login() {
+        return authService.login(loginRequest);
+    }
+
+    @Benchmark
+    public AuthDto refresh() {
+        AuthDto auth = authService.refresh(new RefreshTokenRequestDto(refreshToken));
+        refreshToken = auth.getRefreshToken();
+        return auth;
+    }
+}
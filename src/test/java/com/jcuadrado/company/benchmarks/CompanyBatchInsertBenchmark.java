@@ -0,0 +1,117 @@
+package com.jcuadrado.company.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rows per second of the statements behind POST /companies/batch (ids preallocated from a sequence with
+ * increment 50, JDBC batches of 50, one transaction) against the single-item loop it replaces (one auto-committed
+ * INSERT per company), on an in-memory H2 table. Results are reported per row.
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=CompanyBatchInsertBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyBatchInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+    private static final String INSERT = "insert into companies (id, nit, name, address, phone) values (?, ?, ?, ?, ?)";
+
+    private Connection connection;
+    private long nextNit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:companies_batch_benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists companies");
+            statement.execute("drop sequence if exists companies_seq");
+            statement.execute("create sequence companies_seq start with 1 increment by " + BATCH_SIZE);
+            statement.execute("create table companies (id bigint primary key, nit varchar(255) not null, " +
+                    "name varchar(255) not null, address varchar(255), phone varchar(255), " +
+                    "constraint uk_companies_nit unique (nit))");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("truncate table companies");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table companies");
+            statement.execute("drop sequence companies_seq");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleItemLoop() throws SQLException {
+        connection.setAutoCommit(true);
+        try (PreparedStatement nextId = connection.prepareStatement("select next value for companies_seq");
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < ROWS; i++) {
+                this.bind(insert, this.next(nextId));
+                insert.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchInsert() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement nextId = connection.prepareStatement("select next value for companies_seq");
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            long id = 0;
+            long blockEnd = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (id == blockEnd) {
+                    blockEnd = this.next(nextId) + BATCH_SIZE;
+                    id = blockEnd - BATCH_SIZE;
+                }
+                this.bind(insert, id++);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private long next(PreparedStatement nextId) throws SQLException {
+        try (ResultSet resultSet = nextId.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void bind(PreparedStatement insert, long id) throws SQLException {
+        long nit = ++nextNit;
+        insert.setLong(1, id);
+        insert.setString(2, String.valueOf(100_000_000L + nit));
+        insert.setString(3, "Company " + nit);
+        insert.setString(4, "Calle " + nit % 200);
+        insert.setString(5, "+57" + (3_000_000_000L + nit));
+    }
+}
@@ -0,0 +1,122 @@
+package com.jcuadrado.company.benchmarks;
+
+import com.jcuadrado.company.CompanyApplication;
+import com.jcuadrado.company.entities.Company;
+import com.jcuadrado.company.repositories.CompanyRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test of the running application with Tomcat on platform threads (200 max) against virtual threads: 400
+ * concurrent clients issue GET /companies?search= with count=false, each request one query on the database. Run both
+ * modes and compare ops/s (thrpt) and the p0.99 row of the sample mode.
+ * <p>
+ * Virtual threads need Java 21: build with {@code -Pjava21}, otherwise {@code virtualThreads=true} silently runs on
+ * platform threads. The {@code test} profile uses in-memory H2, whose queries never leave the JVM; to measure waits
+ * on PostgreSQL pass {@code -p springProfile=dev} (the table is seeded only when empty).
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark,java21 test-compile exec:exec -Dbenchmark=CompanyRequestThreadingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class CompanyRequestThreadingBenchmark {
+
+    private static final int COMPANIES = 10_000;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"test"})
+    private String springProfile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI companies;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.out.printf("%nVirtual threads need Java 21, running on Java %d with platform threads%n",
+                    Runtime.version().feature());
+        }
+        context = new SpringApplicationBuilder(CompanyApplication.class).run(
+                "--spring.profiles.active=" + springProfile,
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.port=0",
+                "--security.rate-limit.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        this.seed(context.getBean(CompanyRepository.class));
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        companies = URI.create("http://localhost:" + port + "/companies?search=company%2012&count=false&size=20");
+
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(login.body());
+        if (!token.find()) {
+            throw new IllegalStateException("Login failed: " + login.body());
+        }
+        authorization = "Bearer " + token.group(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(CompanyRepository companyRepository) {
+        if (companyRepository.count() > 0) {
+            return;
+        }
+        List<Company> batch = new ArrayList<>(1000);
+        for (long i = 1; i <= COMPANIES; i++) {
+            batch.add(Company.builder()
+                    .name("Company " + i)
+                    .nit(String.valueOf(900_000_000L + i))
+                    .address("Calle " + i % 200)
+                    .phone("+57" + (3_000_000_000L + i))
+                    .active(true)
+                    .build());
+            if (batch.size() == 1000) {
+                companyRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(companies)
+                .header("Authorization", authorization)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /companies returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,110 @@
+package com.jcuadrado.company.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.PaginatedResponseDto;
+import com.jcuadrado.company.formats.CompanyProtobufHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time of a GET /companies page through the same message converters the application registers, for
+ * each negotiable format and page size. Payload sizes, raw and gzipped (server.compression), are printed once per
+ * trial before the measurements.
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=CompanyResponseFormatBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompanyResponseFormatBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private PaginatedResponseDto<CompanyDto> page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.selectConverter();
+        List<CompanyDto> companies = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            companies.add(CompanyDto.builder()
+                    .id(id)
+                    .name("Company " + id)
+                    .nit(String.valueOf(900_000_000L + id))
+                    .address("Calle " + id % 200 + " # " + id % 97 + "-" + id % 53)
+                    .phone("+57" + (3_000_000_000L + id))
+                    .active(true)
+                    .build());
+        }
+        page = PaginatedResponseDto.<CompanyDto>builder()
+                .data(companies)
+                .totalPages(100)
+                .totalElements(100L * pageSize)
+                .pageSize(pageSize)
+                .currentPage(1)
+                .hasNext(true)
+                .nextCursor("eyJuYW1lIjoiQ29tcGFueSAxMCIsImlkIjoxMH0")
+                .build();
+
+        byte[] body = this.serialize().getBodyAsBytes();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        System.out.printf("%n%s, %d companies: %d bytes, %d bytes gzipped%n", format, pageSize, body.length, gzipped.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void selectConverter() {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        switch (format) {
+            case "json" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) new MappingJackson2HttpMessageConverter(json);
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "cbor" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) new MappingJackson2CborHttpMessageConverter();
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            case "smile" -> {
+                converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) new MappingJackson2SmileHttpMessageConverter();
+                mediaType = MediaType.parseMediaType("application/x-jackson-smile");
+            }
+            case "protobuf" -> {
+                converter = new CompanyProtobufHttpMessageConverter();
+                mediaType = CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage serialize() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(page, mediaType, output);
+        return output;
+    }
+}
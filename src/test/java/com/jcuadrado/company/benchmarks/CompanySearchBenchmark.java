@@ -0,0 +1,184 @@
+package com.jcuadrado.company.benchmarks;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.search.CompanySearchIndex;
+import com.jcuadrado.company.search.SearchPatterns;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a first page of GET /companies?search= answered by {@link CompanySearchIndex} (plus loading the page's
+ * rows by id, as the service does) against the database query (content plus count) it replaces.
+ * <p>
+ * By default the database side is an in-memory H2 table, which has no trigram indexes: those figures only compare
+ * the index with a full scan and say nothing about the {@code pg_trgm} query it replaces in production. To measure
+ * that, point {@code jdbcUrl} at an empty PostgreSQL database; the table then gets the GIN trigram and
+ * {@code (name, id)} indexes of the Flyway migrations and is analyzed before measuring.
+ * <p>
+ * Terms cover a rare match ({@code acme lab}, {@code 4242}), high-cardinality ones that match a twentieth
+ * ({@code acme}) or about a fifth ({@code ing}) of the rows, where the index keeps only the page in a bounded heap
+ * instead of sorting every match, and short terms ({@code ac}, {@code 7}) that the index does not answer, so
+ * {@code inMemoryIndex} runs the database query for them just as the service does.
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=CompanySearchBenchmark}, adding
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/benchmark -p user=... -p password=...} for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class CompanySearchBenchmark {
+
+    private static final String[] PREFIXES = {
+            "Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Tyrell", "Cyberdyne", "Soylent", "Hooli",
+            "Vandelay", "Wonka", "Oscorp", "Gringotts", "Monarch", "Massive", "Sirius", "Virtucon", "Nakatomi", "Prestige"
+    };
+    private static final String[] SUFFIXES = {
+            "Industries", "Holdings", "Logistics", "Consulting", "Foods", "Energy", "Software", "Textiles", "Mining", "Labs"
+    };
+    private static final int PAGE_SIZE = 10;
+    private static final String PAGE_QUERY = "select id, name, nit, address, phone from companies " +
+            "where lower(name) like ? escape '\\' or lower(nit) like ? escape '\\' " +
+            "order by name, id offset 0 rows fetch first " + PAGE_SIZE + " rows only";
+    private static final String COUNT_QUERY = "select count(*) from companies " +
+            "where lower(name) like ? escape '\\' or lower(nit) like ? escape '\\'";
+
+    private static final String ROWS_BY_ID_QUERY = "select id, name, nit, address, phone from companies where id = any (?)";
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"jdbc:h2:mem:companies_benchmark;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"sa"})
+    private String user;
+
+    @Param({""})
+    private String password;
+
+    @Param({"acme lab", "4242", "acme", "ing", "ac", "7"})
+    private String term;
+
+    private CompanySearchIndex index;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        index = new CompanySearchIndex(true);
+        CompanySearchIndex.Reload reload = index.beginReload();
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists companies");
+            statement.execute("create table companies (id bigint primary key, nit varchar(255) not null unique, " +
+                    "name varchar(255) not null, address varchar(255), phone varchar(255))");
+        }
+
+        Random random = new Random(42);
+        List<CompanyDto> batch = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into companies (id, nit, name, address, phone) values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= rows; id++) {
+                CompanyDto company = CompanyDto.builder()
+                        .id(id)
+                        .nit(String.valueOf(100_000_000L + id * 7919 % 900_000_000L))
+                        .name(PREFIXES[random.nextInt(PREFIXES.length)] + " " + SUFFIXES[random.nextInt(SUFFIXES.length)] + " " + id)
+                        .address("Calle " + random.nextInt(200) + " # " + random.nextInt(100))
+                        .phone("+57" + (3_000_000_000L + random.nextInt(999_999_999)))
+                        .build();
+                insert.setLong(1, company.getId());
+                insert.setString(2, company.getNit());
+                insert.setString(3, company.getName());
+                insert.setString(4, company.getAddress());
+                insert.setString(5, company.getPhone());
+                insert.addBatch();
+                batch.add(company);
+                if (batch.size() == 10_000) {
+                    insert.executeBatch();
+                    reload.add(batch);
+                    batch.clear();
+                }
+            }
+            insert.executeBatch();
+            reload.add(batch);
+        }
+        index.completeReload(reload);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index idx_companies_name_id on companies (name, id)");
+            if (postgres) {
+                statement.execute("create extension if not exists pg_trgm");
+                statement.execute("create index idx_companies_name_trgm on companies using gin (lower(name) gin_trgm_ops)");
+                statement.execute("create index idx_companies_nit_trgm on companies using gin (lower(nit) gin_trgm_ops)");
+                statement.execute("analyze companies");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table companies");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void inMemoryIndex(Blackhole blackhole) throws SQLException {
+        if (!index.supports(term)) {
+            this.databaseQuery(blackhole);
+            return;
+        }
+        CompanySearchIndex.SearchPage page = index.search(term, null, 0, PAGE_SIZE);
+        blackhole.consume(page.getTotal());
+        if (page.getContent().isEmpty()) {
+            return;
+        }
+        try (PreparedStatement rowsById = connection.prepareStatement(ROWS_BY_ID_QUERY)) {
+            rowsById.setArray(1, connection.createArrayOf("BIGINT",
+                    page.getContent().stream().map(CompanyDto::getId).toArray()));
+            try (ResultSet resultSet = rowsById.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getLong(1));
+                    blackhole.consume(resultSet.getString(2));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void databaseQuery(Blackhole blackhole) throws SQLException {
+        String pattern = SearchPatterns.toContainsPattern(term);
+        try (PreparedStatement page = connection.prepareStatement(PAGE_QUERY)) {
+            page.setString(1, pattern);
+            page.setString(2, pattern);
+            try (ResultSet resultSet = page.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getLong(1));
+                    blackhole.consume(resultSet.getString(2));
+                }
+            }
+        }
+        try (PreparedStatement count = connection.prepareStatement(COUNT_QUERY)) {
+            count.setString(1, pattern);
+            count.setString(2, pattern);
+            try (ResultSet resultSet = count.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.jcuadrado.company.benchmarks;
+
+import com.jcuadrado.company.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking one bearer token on the authentication filter path: {@code rebuild} is the former
+ * {@code JwtService}, which decoded the key and built a parser on every call and verified the signature twice per
+ * request; {@code sharedParser} verifies once with the key and parser built at startup and the token cache disabled;
+ * {@code cached} is the default, where a token already seen is answered from the cache by its SHA-256 digest.
+ * <p>
+ * Run with: {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=JwtAuthenticationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET_KEY = "testSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789";
+    private static final long EXPIRATION_TIME = 3_600_000L;
+
+    private JwtService uncachedJwtService;
+    private JwtService cachedJwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uncachedJwtService = new JwtService(SECRET_KEY, EXPIRATION_TIME, 0);
+        cachedJwtService = new JwtService(SECRET_KEY, EXPIRATION_TIME, 10_000);
+        token = cachedJwtService.generateTokenFromUsername(User.withUsername("admin").password("admin").build());
+        cachedJwtService.getUsernameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String rebuild() {
+        String username = this.parseWithNewParser(token).getSubject();
+        this.parseWithNewParser(token);
+        return username;
+    }
+
+    @Benchmark
+    public String sharedParser() {
+        return uncachedJwtService.getUsernameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String cached() {
+        return cachedJwtService.getUsernameFromJwtToken(token);
+    }
+
+    private Claims parseWithNewParser(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+}
@@ -0,0 +1,71 @@
+package com.jcuadrado.company.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Test getConnection fails once every permit is checked out and succeeds after a close")
+    void testGetConnectionWaitsForPermit() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection first = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(1)).getConnection();
+
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        assertNotNull(dataSource.getConnection());
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("Test getConnection returns the permit when the pool fails")
+    void testGetConnectionReleasesPermitOnFailure() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Test the returned connection delegates to the pooled one")
+    void testConnectionDelegates() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        assertFalse(dataSource.getConnection().getAutoCommit());
+    }
+}
@@ -0,0 +1,51 @@
+package com.jcuadrado.company.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginExecutorConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new LoginExecutorConfig().loginExecutor(1, 1, meterRegistry);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test login executor rejects immediately once its thread and queue are taken, and counts it")
+    void testRejectsWhenFull() {
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(this::awaitRelease));
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").counter().count());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
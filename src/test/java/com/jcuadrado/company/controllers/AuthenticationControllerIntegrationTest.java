@@ -1,17 +1,26 @@
 package com.jcuadrado.company.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.security.RefreshTokenStore;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -26,6 +35,9 @@ public class AuthenticationControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
     @Test
     @DisplayName("Test login with valid credentials returns JWT token")
     void testLoginWithValidCredentials() throws Exception {
@@ -34,13 +46,18 @@ public class AuthenticationControllerIntegrationTest {
                 .password("admin")
                 .build();
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult login = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(login))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.token", notNullValue()))
-                .andExpect(jsonPath("$.token", not(emptyString())));
+                .andExpect(jsonPath("$.token", not(emptyString())))
+                .andExpect(jsonPath("$.refreshToken", not(emptyString())));
     }
 
     @Test
@@ -51,9 +68,13 @@ public class AuthenticationControllerIntegrationTest {
                 .password("wrongpassword")
                 .build();
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult login = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(login))
                 .andExpect(status().isUnauthorized());
     }
 
@@ -161,4 +182,76 @@ public class AuthenticationControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isMethodNotAllowed());
     }
+
+    @Test
+    @DisplayName("Test refresh returns a new access token and rotates the refresh token")
+    void testRefreshRotatesToken() throws Exception {
+        String refreshToken = this.login().get("refreshToken").asText();
+
+        JsonNode refreshed = this.refresh(refreshToken, 200);
+
+        assertThat(refreshed.get("refreshToken").asText(), not(equalTo(refreshToken)));
+        mockMvc.perform(get("/companies")
+                        .header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Test reusing a refresh token revokes its whole family")
+    void testRefreshTokenReuseRevokesFamily() throws Exception {
+        String refreshToken = this.login().get("refreshToken").asText();
+        String nextRefreshToken = this.refresh(refreshToken, 200).get("refreshToken").asText();
+
+        this.refresh(refreshToken, 401);
+        this.refresh(nextRefreshToken, 401);
+    }
+
+    @Test
+    @DisplayName("Test a rotation whose successor cannot be saved leaves the token unused")
+    void testFailedRotationKeepsTokenUsable() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        refreshTokenStore.save("used-digest", "admin", "rotation-family", expiresAt);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> refreshTokenStore.rotate("used-digest", "next-digest", null, "rotation-family", expiresAt));
+
+        assertTrue(refreshTokenStore.rotate("used-digest", "next-digest", "admin", "rotation-family", expiresAt));
+        assertFalse(refreshTokenStore.rotate("used-digest", "other-digest", "admin", "rotation-family", expiresAt));
+    }
+
+    @Test
+    @DisplayName("Test refresh with an unknown or missing token")
+    void testRefreshWithInvalidToken() throws Exception {
+        this.refresh("unknown", 401);
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode login() throws Exception {
+        LoginRequestDto loginRequest = LoginRequestDto.builder()
+                .username("admin")
+                .password("admin")
+                .build();
+        MvcResult login = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode refresh(String refreshToken, int expectedStatus) throws Exception {
+        String body = mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequestDto(refreshToken))))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return expectedStatus == 200 ? objectMapper.readTree(body) : null;
+    }
 }
@@ -2,17 +2,20 @@ package com.jcuadrado.company.controllers;
 
 import com.jcuadrado.company.dtos.AuthDto;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
 import com.jcuadrado.company.services.AuthService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -22,9 +25,13 @@ class AuthenticationControllerTest {
     @Mock
     private AuthService authService;
 
-    @InjectMocks
     private AuthenticationController authenticationController;
 
+    @BeforeEach
+    void setUp() {
+        authenticationController = new AuthenticationController(authService, Runnable::run);
+    }
+
     @Test
     @DisplayName("Test login success")
     void testLoginSuccess() {
@@ -41,7 +48,7 @@ class AuthenticationControllerTest {
         when(authService.login(loginRequest)).thenReturn(expectedAuthDto);
 
         // When
-        ResponseEntity<AuthDto> response = authenticationController.login(loginRequest);
+        ResponseEntity<AuthDto> response = this.login(loginRequest);
 
         // Then
         assertNotNull(response);
@@ -66,7 +73,7 @@ class AuthenticationControllerTest {
 
         // When & Then
         assertThrows(BadCredentialsException.class, () -> {
-            authenticationController.login(loginRequest);
+            this.login(loginRequest);
         });
 
         // Verify service interaction
@@ -89,7 +96,7 @@ class AuthenticationControllerTest {
         when(authService.login(loginRequest)).thenReturn(expectedAuthDto);
 
         // When
-        ResponseEntity<AuthDto> response = authenticationController.login(loginRequest);
+        ResponseEntity<AuthDto> response = this.login(loginRequest);
 
         // Then
         assertNotNull(response);
@@ -118,7 +125,7 @@ class AuthenticationControllerTest {
         when(authService.login(loginRequest)).thenReturn(authDto);
 
         // When
-        ResponseEntity<AuthDto> response = authenticationController.login(loginRequest);
+        ResponseEntity<AuthDto> response = this.login(loginRequest);
 
         // Then
         assertNotNull(response);
@@ -141,7 +148,7 @@ class AuthenticationControllerTest {
         when(authService.login(nullRequest)).thenThrow(new IllegalArgumentException("Login request cannot be null"));
 
         assertThrows(IllegalArgumentException.class, () -> {
-            authenticationController.login(nullRequest);
+            this.login(nullRequest);
         });
 
         verify(authService).login(nullRequest);
@@ -163,7 +170,7 @@ class AuthenticationControllerTest {
         when(authService.login(loginRequest)).thenReturn(authDto);
 
         // When
-        authenticationController.login(loginRequest);
+        this.login(loginRequest);
 
         // Then - Verify the exact object was passed
         verify(authService).login(argThat(request -> 
@@ -171,4 +178,39 @@ class AuthenticationControllerTest {
             "specificpassword".equals(request.getPassword())
         ));
     }
+
+    @Test
+    @DisplayName("Test refresh success")
+    void testRefreshSuccess() {
+        // Given
+        RefreshTokenRequestDto refreshRequest = RefreshTokenRequestDto.builder()
+                .refreshToken("refresh.token")
+                .build();
+
+        AuthDto expectedAuthDto = AuthDto.builder()
+                .token("jwt.token.here")
+                .refreshToken("next.refresh.token")
+                .build();
+
+        when(authService.refresh(refreshRequest)).thenReturn(expectedAuthDto);
+
+        // When
+        ResponseEntity<AuthDto> response = authenticationController.refresh(refreshRequest);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedAuthDto, response.getBody());
+        verify(authService).refresh(refreshRequest);
+    }
+
+    /**
+     * Runs the login on the calling thread and rethrows what the service threw, as the async dispatch would.
+     */
+    private ResponseEntity<AuthDto> login(LoginRequestDto loginRequest) {
+        try {
+            return authenticationController.login(loginRequest).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
 }
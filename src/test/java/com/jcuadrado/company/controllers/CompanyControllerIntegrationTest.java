@@ -1,9 +1,21 @@
 package com.jcuadrado.company.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.BatchCreateCompanyDto;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CompanyField;
 import com.jcuadrado.company.dtos.CreateCompanyDto;
 import com.jcuadrado.company.dtos.UpdateCompanyDto;
 import com.jcuadrado.company.entities.Company;
+import com.jcuadrado.company.formats.CompanyProtobufHttpMessageConverter;
+import com.jcuadrado.company.repositories.CompanyChangesRepository;
 import com.jcuadrado.company.repositories.CompanyRepository;
 import com.jcuadrado.company.security.JwtService;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +24,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -38,6 +56,9 @@ public class CompanyControllerIntegrationTest {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private CompanyChangesRepository companyChangesRepository;
+
     @Autowired
     private JwtService jwtService;
 
@@ -52,7 +73,7 @@ public class CompanyControllerIntegrationTest {
         jwtToken = "Bearer " + jwtService.generateTokenFromUsername(User
                 .withUsername("admin")
                 .password("admin")
-                .authorities("ADMIN")
+                .roles("ADMIN")
                 .build()
         );
     }
@@ -84,6 +105,154 @@ public class CompanyControllerIntegrationTest {
         assertEquals("12345678", companies.get(0).getNit());
     }
 
+    @Test
+    @DisplayName("Integration Test - Create Company With Duplicated Nit")
+    void testCreateCompanyWithDuplicatedNit() throws Exception {
+        companyRepository.save(Company.builder().name("Existing Company").nit("12345678").build());
+
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder()
+                .name("Test Company")
+                .nit("12345678")
+                .build();
+
+        mockMvc.perform(post("/companies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createCompanyDto))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.COMPANY_ALREADY_EXISTS)));
+
+        assertEquals(1, companyRepository.count());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Create Companies In Batch")
+    void testCreateCompaniesInBatch() throws Exception {
+        companyRepository.save(Company.builder().name("Existing Company").nit("12345678").build());
+
+        BatchCreateCompanyDto batchCreateCompanyDto = BatchCreateCompanyDto.builder()
+                .companies(List.of(
+                        CreateCompanyDto.builder().name("Batch Company 1").nit("11111111").build(),
+                        CreateCompanyDto.builder().name("Batch Company 2").nit("12345678").build(),
+                        CreateCompanyDto.builder().name("Batch Company 3").nit("33333333").build()))
+                .build();
+
+        mockMvc.perform(post("/companies/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchCreateCompanyDto))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.conflicts", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[0].company.id", notNullValue()))
+                .andExpect(jsonPath("$.results[1].status", is("CONFLICT")))
+                .andExpect(jsonPath("$.results[1].company").doesNotExist())
+                .andExpect(jsonPath("$.results[2].status", is("CREATED")));
+
+        assertEquals(3, companyRepository.count());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Create Companies In Batch With Invalid Item")
+    void testCreateCompaniesInBatchWithInvalidItem() throws Exception {
+        BatchCreateCompanyDto batchCreateCompanyDto = BatchCreateCompanyDto.builder()
+                .companies(List.of(CreateCompanyDto.builder().name("Batch Company").build()))
+                .build();
+
+        mockMvc.perform(post("/companies/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchCreateCompanyDto))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details['companies[0].nit']", notNullValue()));
+
+        assertEquals(0, companyRepository.count());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Import Companies From NDJSON")
+    void testImportCompaniesFromNdjson() throws Exception {
+        companyRepository.save(Company.builder().name("Existing Company").nit("12345678").build());
+
+        String report = mockMvc.perform(post("/companies/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                        {"name": "Imported Company", "nit": "11111111"}
+                        {"name": "Duplicated Company", "nit": "12345678"}
+                        {"name": "X", "nit": "22222222"}
+                        """)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = report.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("CREATED", objectMapper.readTree(lines.get(0)).get("status").asText());
+        assertEquals("CONFLICT", objectMapper.readTree(lines.get(1)).get("status").asText());
+        assertEquals("INVALID", objectMapper.readTree(lines.get(2)).get("status").asText());
+        assertEquals(2, companyRepository.count());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Import Companies From CSV")
+    void testImportCompaniesFromCsv() throws Exception {
+        mockMvc.perform(post("/companies/import")
+                .contentType("text/csv")
+                .content("""
+                        name,nit,phone
+                        "Acme, Inc",11111111,+573001234567
+                        Globex,22222222,
+                        """)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk());
+
+        assertEquals(2, companyRepository.count());
+        assertTrue(companyRepository.findAll().stream().anyMatch(company -> company.getName().equals("Acme, Inc")));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Export Companies")
+    void testExportCompanies() throws Exception {
+        companyRepository.saveAll(List.of(
+                Company.builder().name("Test Company 1").nit("12345678").build(),
+                Company.builder().name("Test Company, 2").nit("87654321").build()
+        ));
+
+        MvcResult ndjson = mockMvc.perform(get("/companies/export")
+                .header("Authorization", jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjsonBody = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", containsString("companies.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(2, ndjsonBody.lines().count());
+
+        MvcResult csv = mockMvc.perform(get("/companies/export")
+                .param("format", "csv")
+                .header("Authorization", jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csvBody = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("id,name,nit,address,phone,active", csvBody.lines().findFirst().orElseThrow());
+        assertTrue(csvBody.contains("\"Test Company, 2\",87654321,,,true"));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Export Companies With Invalid Format")
+    void testExportCompaniesWithInvalidFormat() throws Exception {
+        mockMvc.perform(get("/companies/export")
+                .param("format", "xml")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.INVALID_EXPORT_FORMAT)));
+    }
+
     @Test
     @DisplayName("Integration Test - Get All Companies")
     void testGetAllCompanies() throws Exception {
@@ -113,6 +282,249 @@ public class CompanyControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalPages", is(1)));
     }
 
+    @Test
+    @DisplayName("Integration Test - Get All Companies In Binary Formats")
+    void testGetAllCompaniesInBinaryFormats() throws Exception {
+        companyRepository.save(Company.builder().name("Test Company").nit("12345678").phone("+1234567890").build());
+
+        byte[] cbor = mockMvc.perform(get("/companies")
+                .accept("application/cbor")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode cborPage = new CBORMapper().readTree(cbor);
+        assertEquals("Test Company", cborPage.at("/data/0/name").asText());
+        assertEquals(1, cborPage.at("/totalElements").asInt());
+
+        byte[] smile = mockMvc.perform(get("/companies")
+                .accept("application/x-jackson-smile")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("12345678", new SmileMapper().readTree(smile).at("/data/0/nit").asText());
+
+        byte[] protobuf = mockMvc.perform(get("/companies")
+                .accept(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+        ProtobufSchema pageSchema = ProtobufSchemaLoader.std
+                .loadNative(new ClassPathResource("proto/company.proto").getInputStream(), true)
+                .forType("CompanyPage");
+        JsonNode protobufPage = new ProtobufMapper().readerFor(JsonNode.class).with(pageSchema).readValue(protobuf);
+        assertEquals("Test Company", protobufPage.at("/data/0/name").asText());
+        assertEquals("+1234567890", protobufPage.at("/data/0/phone").asText());
+        assertEquals(1, protobufPage.at("/totalElements").asInt());
+
+        byte[] sparseProtobuf = mockMvc.perform(get("/companies")
+                .param("fields", "id,name")
+                .accept(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode sparsePage = new ProtobufMapper().readerFor(JsonNode.class).with(pageSchema).readValue(sparseProtobuf);
+        assertEquals("Test Company", sparsePage.at("/data/0/name").asText());
+        assertTrue(sparsePage.at("/data/0/nit").isMissingNode());
+
+        mockMvc.perform(get("/companies")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get Company By Id Not Found In Protobuf")
+    void testGetCompanyByIdNotFoundInProtobuf() throws Exception {
+        mockMvc.perform(get("/companies/{id}", 999L)
+                .accept(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.COMPANY_NOT_FOUND)));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get Companies With Sparse Fields")
+    void testGetCompaniesWithSparseFields() throws Exception {
+        Company first = companyRepository.save(Company.builder().name("Alpha Company").nit("12345678").phone("+1234567890").build());
+        companyRepository.save(Company.builder().name("Beta Company").nit("87654321").address("Test Address").build());
+
+        String firstPage = mockMvc.perform(get("/companies")
+                .param("fields", "id,nit,address")
+                .param("size", "1")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].id", is(first.getId().intValue())))
+                .andExpect(jsonPath("$.data[0].nit", is("12345678")))
+                .andExpect(jsonPath("$.data[0]", hasKey("address")))
+                .andExpect(jsonPath("$.data[0].address").value(nullValue()))
+                .andExpect(jsonPath("$.data[0].name").doesNotExist())
+                .andExpect(jsonPath("$.data[0].phone").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/companies")
+                .param("fields", "name")
+                .param("search", "company")
+                .param("size", "1")
+                .param("after", nextCursor)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Beta Company")))
+                .andExpect(jsonPath("$.data[0].id").doesNotExist())
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        mockMvc.perform(get("/companies/{id}", first.getId())
+                .param("fields", "name,phone")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Alpha Company")))
+                .andExpect(jsonPath("$.phone", is("+1234567890")))
+                .andExpect(jsonPath("$.nit").doesNotExist());
+
+        mockMvc.perform(get("/companies")
+                .param("fields", "id,password")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is(String.format(CompanyErrorMessages.INVALID_FIELD, "password"))));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Sparse Fields Leave Unrequested Columns Unselected")
+    void testSparseFieldsLeaveUnrequestedColumnsUnselected() {
+        companyRepository.save(Company.builder().name("Test Company").nit("12345678").address("Test Address").phone("+1234567890").build());
+
+        CompanyDto company = companyRepository.findSliceWithFields(EnumSet.of(CompanyField.NIT), null, true,
+                PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id")).getContent().get(0);
+
+        assertEquals("12345678", company.getNit());
+        assertEquals("Test Company", company.getName());
+        assertNotNull(company.getId());
+        assertNull(company.getAddress());
+        assertNull(company.getPhone());
+        assertNull(company.getActive());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get All Companies By Active Flag")
+    void testGetAllCompaniesByActiveFlag() throws Exception {
+        Company inactive = companyRepository.save(Company.builder().name("Inactive Company").nit("12345678").active(false).build());
+        companyRepository.save(Company.builder().name("Active Company").nit("87654321").build());
+
+        mockMvc.perform(get("/companies")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Active Company")))
+                .andExpect(jsonPath("$.data[0].active", is(true)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        mockMvc.perform(get("/companies")
+                .param("isActive", "false")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Inactive Company")));
+
+        mockMvc.perform(put("/companies/{id}", inactive.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().active(true).build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active", is(true)));
+
+        mockMvc.perform(get("/companies")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get All Companies Without Count")
+    void testGetAllCompaniesWithoutCount() throws Exception {
+        companyRepository.saveAll(List.of(
+                Company.builder().name("Test Company 1").nit("12345678").build(),
+                Company.builder().name("Test Company 2").nit("87654321").build()
+        ));
+
+        mockMvc.perform(get("/companies")
+                .param("size", "1")
+                .param("count", "false")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Search Companies By Name Or Nit")
+    void testSearchCompanies() throws Exception {
+        companyRepository.saveAll(List.of(
+                Company.builder().name("Acme 100% Natural").nit("12345678").build(),
+                Company.builder().name("Globex").nit("87654321").build(),
+                Company.builder().name("Initech").nit("100200300").build()
+        ));
+
+        mockMvc.perform(get("/companies")
+                .param("search", "ACME")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Acme 100% Natural")));
+
+        mockMvc.perform(get("/companies")
+                .param("search", "0%")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Acme 100% Natural")));
+
+        mockMvc.perform(get("/companies")
+                .param("search", "8765")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Globex")));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get All Companies With Cursor")
+    void testGetAllCompaniesWithCursor() throws Exception {
+        companyRepository.saveAll(List.of(
+                Company.builder().name("Test Company 1").nit("12345678").build(),
+                Company.builder().name("Test Company 2").nit("87654321").build(),
+                Company.builder().name("Test Company 3").nit("11223344").build()
+        ));
+
+        String firstPage = mockMvc.perform(get("/companies")
+                .param("size", "2")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/companies")
+                .param("size", "2")
+                .param("after", nextCursor)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("Test Company 3")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
     @Test
     @DisplayName("Integration Test - Get Company By Id")
     void testGetCompanyById() throws Exception {
@@ -171,6 +583,107 @@ public class CompanyControllerIntegrationTest {
         assertEquals("87654321", updatedCompany.getNit());
     }
 
+    @Test
+    @DisplayName("Integration Test - Update Company With If-Match")
+    void testUpdateCompanyWithIfMatch() throws Exception {
+        Company company = companyRepository.save(Company.builder().name("Test Company").nit("12345678").build());
+
+        mockMvc.perform(put("/companies/{id}", company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().name("First Update").build()))
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name", is("First Update")))
+                .andExpect(jsonPath("$.nit", is("12345678")));
+
+        mockMvc.perform(put("/companies/{id}", company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().name("Lost Update").build()))
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.COMPANY_VERSION_MISMATCH)));
+
+        Company stored = companyRepository.findById(company.getId()).orElseThrow();
+        assertEquals("First Update", stored.getName());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Patch Company With Merge Patch")
+    void testPatchCompany() throws Exception {
+        Company company = companyRepository.save(Company.builder()
+                .name("Test Company")
+                .nit("12345678")
+                .address("Test Address")
+                .phone("+1234567890")
+                .build());
+
+        mockMvc.perform(patch("/companies/{id}", company.getId())
+                .contentType(CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"phone\": \"+5730012345678\", \"address\": null}")
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name", is("Test Company")))
+                .andExpect(jsonPath("$.nit", is("12345678")))
+                .andExpect(jsonPath("$.phone", is("+5730012345678")))
+                .andExpect(jsonPath("$.address").doesNotExist());
+
+        Company stored = companyRepository.findById(company.getId()).orElseThrow();
+        assertEquals("Test Company", stored.getName());
+        assertEquals("+5730012345678", stored.getPhone());
+        assertNull(stored.getAddress());
+
+        mockMvc.perform(patch("/companies/{id}", company.getId())
+                .contentType(CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"name\": \"Lost Update\"}")
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Patch Company Rejects Removing Required Fields And Invalid Values")
+    void testPatchCompanyWithInvalidData() throws Exception {
+        Company company = companyRepository.save(Company.builder().name("Test Company").nit("12345678").build());
+
+        mockMvc.perform(patch("/companies/{id}", company.getId())
+                .contentType(CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"name\": null}")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is(String.format(CompanyErrorMessages.FIELD_CANNOT_BE_REMOVED, "name"))));
+
+        mockMvc.perform(patch("/companies/{id}", company.getId())
+                .contentType(CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"phone\": \"123\"}")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.phone", notNullValue()));
+
+        assertEquals(0L, companyRepository.findById(company.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Update Company With Duplicated Nit")
+    void testUpdateCompanyWithDuplicatedNit() throws Exception {
+        companyRepository.save(Company.builder().name("First Company").nit("12345678").build());
+        Company company = companyRepository.save(Company.builder().name("Second Company").nit("87654321").build());
+
+        mockMvc.perform(put("/companies/{id}", company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().nit("12345678").build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.COMPANY_ALREADY_EXISTS)));
+
+        assertEquals("87654321", companyRepository.findById(company.getId()).orElseThrow().getNit());
+    }
+
     @Test
     @DisplayName("Integration Test - Delete Company")
     void testDeleteCompany() throws Exception {
@@ -190,6 +703,165 @@ public class CompanyControllerIntegrationTest {
         assertFalse(companyRepository.existsById(company.getId()));
     }
 
+    @Test
+    @DisplayName("Integration Test - Get Company By Id Is Cached Until Updated")
+    void testGetCompanyByIdIsCachedUntilUpdated() throws Exception {
+        Company company = companyRepository.save(Company.builder()
+                .name("Cached Company")
+                .nit("11111111")
+                .build());
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Cached Company")));
+
+        company.setName("Changed Behind The Cache");
+        companyRepository.save(company);
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Cached Company")));
+
+        mockMvc.perform(put("/companies/{id}", company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().name("Updated Company").build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Updated Company")));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get Company By Id Not Modified Until Updated")
+    void testGetCompanyByIdNotModifiedUntilUpdated() throws Exception {
+        Company company = companyRepository.save(Company.builder().name("Test Company").nit("12345678").build());
+
+        String eTag = mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/companies/{id}", company.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UpdateCompanyDto.builder().name("Updated Company").build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name", is("Updated Company")));
+    }
+
+    @Test
+    @DisplayName("Integration Test - A write bumps the change counter in its transaction and after commit")
+    void testWriteBumpsChangeCounterTwice() throws Exception {
+        long before = companyChangesRepository.findChanges().orElseThrow();
+
+        mockMvc.perform(post("/companies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(CreateCompanyDto.builder().name("Test Company").nit("12345678").build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isCreated());
+
+        assertEquals(before + 2, companyChangesRepository.findChanges().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Get All Companies Not Modified Until A Company Changes")
+    void testGetAllCompaniesNotModifiedUntilChanged() throws Exception {
+        String eTag = mockMvc.perform(get("/companies")
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/companies")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/companies")
+                .param("fields", "name")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+
+        mockMvc.perform(get("/companies")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+
+        mockMvc.perform(post("/companies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(CreateCompanyDto.builder().name("Test Company").nit("12345678").build()))
+                .header("Authorization", jwtToken))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        mockMvc.perform(get("/companies")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.data", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Integration Test - Delete Company Evicts Cached Company")
+    void testDeleteCompanyEvictsCachedCompany() throws Exception {
+        Company company = companyRepository.save(Company.builder()
+                .name("Cached Company")
+                .nit("22222222")
+                .build());
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/companies/{id}", company.getId())
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Delete Company Not Found")
+    void testDeleteCompanyNotFound() throws Exception {
+        mockMvc.perform(delete("/companies/{id}", 999L)
+                .header("Authorization", jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", is(CompanyErrorMessages.COMPANY_NOT_FOUND)));
+    }
+
     @Test
     @DisplayName("Integration Test - Get Company By Id Not Found")
     void testGetCompanyByIdNotFound() throws Exception {
@@ -2,6 +2,7 @@ package com.jcuadrado.company.controllers;
 
 import com.jcuadrado.company.dtos.*;
 import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.services.CompanyImportService;
 import com.jcuadrado.company.services.CompanyService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,9 +10,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -24,6 +33,9 @@ public class CompanyControllerTest {
     @Mock
     private CompanyService companyService;
 
+    @Mock
+    private CompanyImportService companyImportService;
+
     @InjectMocks
     private CompanyController companyController;
 
@@ -40,11 +52,45 @@ public class CompanyControllerTest {
                 .nit("123456789")
                 .build();
         when(companyService.create(createCompanyDto)).thenReturn(expectedCompany);
-        ResponseEntity<?> response = companyController.create(createCompanyDto);
+        ResponseEntity<?> response = companyController.create(createCompanyDto, null);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(expectedCompany, response.getBody());
     }
 
+    @Test
+    @DisplayName("Test create batch success")
+    public void testCreateBatchSuccess() {
+        BatchCreateCompanyDto batchCreateCompanyDto = BatchCreateCompanyDto.builder()
+                .companies(List.of(CreateCompanyDto.builder().name("Test Company").nit("123456789").build()))
+                .build();
+        BatchCreateResponseDto expectedResponse = BatchCreateResponseDto.builder()
+                .created(1)
+                .conflicts(0)
+                .results(List.of(BatchItemResultDto.builder()
+                        .index(0)
+                        .status(BatchItemResultDto.Status.CREATED)
+                        .company(CompanyDto.builder().id(1L).name("Test Company").nit("123456789").build())
+                        .build()))
+                .build();
+        when(companyService.createBatch(batchCreateCompanyDto)).thenReturn(expectedResponse);
+        ResponseEntity<?> response = companyController.createBatch(batchCreateCompanyDto);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test import companies streams the report")
+    public void testImportCompaniesSuccess() throws IOException {
+        InputStream body = new ByteArrayInputStream("{}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        companyController.importCompanies("application/x-ndjson; charset=UTF-8", body, response);
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        verify(companyImportService).importCompanies(argThat(MediaType.APPLICATION_NDJSON::isCompatibleWith),
+                eq(body), eq(response.getOutputStream()));
+    }
+
     @Test
     @DisplayName("Test get all companies success")
     public void testGetAllCompaniesSuccess() {
@@ -68,7 +114,7 @@ public class CompanyControllerTest {
 
         when(companyService.getAll(any(PaginationQueryDto.class))).thenReturn(expectedResponse);
 
-        ResponseEntity<?> response = companyController.getAll(search, page, size, isActive);
+        ResponseEntity<?> response = companyController.getAll(search, page, size, isActive, null, true, null, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
@@ -95,7 +141,7 @@ public class CompanyControllerTest {
 
         when(companyService.getById(companyId)).thenReturn(expectedCompany);
 
-        ResponseEntity<?> response = companyController.getById(companyId);
+        ResponseEntity<?> response = companyController.getById(companyId, null, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedCompany, response.getBody());
@@ -103,6 +149,57 @@ public class CompanyControllerTest {
         verify(companyService).getById(companyId);
     }
 
+    @Test
+    @DisplayName("Test get company by id not modified skips loading the company")
+    public void testGetCompanyByIdNotModified() {
+        Long companyId = 1L;
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/companies/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        when(companyService.getVersion(companyId)).thenReturn(3L);
+
+        ResponseEntity<?> response = companyController.getById(companyId, null, new ServletWebRequest(request));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(companyService, never()).getById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get company by id in another format or projection has its own ETag")
+    public void testGetCompanyByIdETagDependsOnRepresentation() {
+        Long companyId = 1L;
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/companies/1");
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        when(companyService.getVersion(companyId)).thenReturn(3L);
+        when(companyService.getById(companyId)).thenReturn(CompanyDto.builder().id(companyId).name("Test Company").version(3L).build());
+
+        ResponseEntity<?> response = companyController.getById(companyId, null, new ServletWebRequest(request));
+        ResponseEntity<?> projected = companyController.getById(companyId, "name", new ServletWebRequest(request));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getETag().matches("\"3-[0-9a-f]{16}\""));
+        assertNotEquals(response.getHeaders().getETag(), projected.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+    }
+
+    @Test
+    @DisplayName("Test update company with If-Match of another representation passes its version")
+    public void testUpdateCompanyWithRepresentationIfMatch() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+        CompanyDto expectedCompany = CompanyDto.builder().id(companyId).name("Updated Company").version(4L).build();
+
+        when(companyService.update(companyId, updateCompanyDto, 3L)).thenReturn(expectedCompany);
+
+        ResponseEntity<?> response = companyController.update(companyId, updateCompanyDto, "\"3-0123456789abcdef\"", null);
+
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
     @Test
     @DisplayName("Test update company success")
     public void testUpdateCompanySuccess() {
@@ -122,14 +219,42 @@ public class CompanyControllerTest {
             .phone("+9876543210")
             .build();
 
-        when(companyService.update(companyId, updateCompanyDto)).thenReturn(expectedCompany);
+        when(companyService.update(companyId, updateCompanyDto, null)).thenReturn(expectedCompany);
 
-        ResponseEntity<?> response = companyController.update(companyId, updateCompanyDto);
+        ResponseEntity<?> response = companyController.update(companyId, updateCompanyDto, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedCompany, response.getBody());
 
-        verify(companyService).update(companyId, updateCompanyDto);
+        verify(companyService).update(companyId, updateCompanyDto, null);
+    }
+
+    @Test
+    @DisplayName("Test update company with If-Match passes the expected version")
+    public void testUpdateCompanyWithIfMatch() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+        CompanyDto expectedCompany = CompanyDto.builder().id(companyId).name("Updated Company").version(4L).build();
+
+        when(companyService.update(companyId, updateCompanyDto, 3L)).thenReturn(expectedCompany);
+
+        ResponseEntity<?> response = companyController.update(companyId, updateCompanyDto, "\"3\"", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(expectedCompany, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Test update company with weak If-Match fails the precondition")
+    public void testUpdateCompanyWithWeakIfMatch() {
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+
+        GeneralException exception = assertThrows(GeneralException.class,
+                () -> companyController.update(1L, updateCompanyDto, "W/\"3\"", null));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus());
+        verifyNoInteractions(companyService);
     }
 
     @Test
@@ -166,7 +291,7 @@ public class CompanyControllerTest {
         when(companyService.create(createCompanyDto)).thenThrow(exception);
 
         // Call controller method and verify exception is thrown
-        assertThrows(GeneralException.class, () -> companyController.create(createCompanyDto));
+        assertThrows(GeneralException.class, () -> companyController.create(createCompanyDto, null));
 
         // Verify that the service was called with correct parameters
         verify(companyService).create(createCompanyDto);
@@ -186,7 +311,7 @@ public class CompanyControllerTest {
         when(companyService.getAll(any(PaginationQueryDto.class))).thenThrow(exception);
 
         // Call controller method and verify exception is thrown
-        assertThrows(GeneralException.class, () -> companyController.getAll(search, page, size, isActive));
+        assertThrows(GeneralException.class, () -> companyController.getAll(search, page, size, isActive, null, true, null, new ServletWebRequest(new MockHttpServletRequest())));
 
         // Verify that the service was called with correct parameters
         verify(companyService).getAll(any(PaginationQueryDto.class));
@@ -203,7 +328,7 @@ public class CompanyControllerTest {
         when(companyService.getById(companyId)).thenThrow(exception);
 
         // Call controller method and verify exception is thrown
-        assertThrows(GeneralException.class, () -> companyController.getById(companyId));
+        assertThrows(GeneralException.class, () -> companyController.getById(companyId, null, new ServletWebRequest(new MockHttpServletRequest())));
 
         // Verify that the service was called with correct parameters
         verify(companyService).getById(companyId);
@@ -221,13 +346,13 @@ public class CompanyControllerTest {
 
         // Mock service behavior to throw exception
         GeneralException exception = new GeneralException(HttpStatus.NOT_FOUND, "Company not found");
-        when(companyService.update(companyId, updateCompanyDto)).thenThrow(exception);
+        when(companyService.update(companyId, updateCompanyDto, null)).thenThrow(exception);
 
         // Call controller method and verify exception is thrown
-        assertThrows(GeneralException.class, () -> companyController.update(companyId, updateCompanyDto));
+        assertThrows(GeneralException.class, () -> companyController.update(companyId, updateCompanyDto, null, null));
 
         // Verify that the service was called with correct parameters
-        verify(companyService).update(companyId, updateCompanyDto);
+        verify(companyService).update(companyId, updateCompanyDto, null);
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.jcuadrado.company.controllers;
+
+import com.jcuadrado.company.security.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "company.datasource.concurrency-limit.enabled=true",
+        "company.datasource.concurrency-limit.permits=1",
+        "company.datasource.concurrency-limit.acquire-timeout=50ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DatabaseSaturationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    @DisplayName("Integration Test - Saturated connection limit answers 503 with Retry-After")
+    void testGetAllWithSaturatedPool() throws Exception {
+        String jwtToken = "Bearer " + jwtService.generateTokenFromUsername(User
+                .withUsername("admin")
+                .password("admin")
+                .roles("ADMIN")
+                .build()
+        );
+
+        try (Connection ignored = dataSource.getConnection()) {
+            mockMvc.perform(get("/companies")
+                            .header(HttpHeaders.AUTHORIZATION, jwtToken))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.status").value(503));
+        }
+
+        mockMvc.perform(get("/companies")
+                        .header(HttpHeaders.AUTHORIZATION, jwtToken))
+                .andExpect(status().isOk());
+    }
+}
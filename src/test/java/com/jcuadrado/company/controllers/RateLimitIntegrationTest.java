@@ -0,0 +1,100 @@
+package com.jcuadrado.company.controllers;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.security.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "security.rate-limit.enabled=true",
+        "security.rate-limit.routes=auth,companies",
+        "security.rate-limit.route.auth.pattern=/auth/**",
+        "security.rate-limit.route.auth.capacity=2",
+        "security.rate-limit.route.auth.refill-per-second=0.01",
+        "security.rate-limit.route.companies.pattern=/companies/**",
+        "security.rate-limit.route.companies.capacity=1",
+        "security.rate-limit.route.companies.refill-per-second=0.01",
+        "security.rate-limit.route.companies.key=subject"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    @DisplayName("Integration Test - Client over its auth limit gets 429 with Retry-After")
+    void testAuthRateLimit() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .with(request -> { request.setRemoteAddr("10.0.0.1"); return request; })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> { request.setRemoteAddr("10.0.0.1"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"))
+                .andExpect(jsonPath("$.message").value(CompanyErrorMessages.TOO_MANY_REQUESTS));
+
+        mockMvc.perform(post("/auth/login")
+                        .with(request -> { request.setRemoteAddr("10.0.0.2"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Integration Test - Requests over the limit are shed before the JWT filter")
+    void testCompaniesRateLimitBeforeAuthentication() throws Exception {
+        mockMvc.perform(get("/companies")
+                        .with(request -> { request.setRemoteAddr("10.0.0.3"); return request; }))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/companies")
+                        .with(request -> { request.setRemoteAddr("10.0.0.3"); return request; })
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Integration Test - A forged subject does not drain the real user's bucket")
+    void testForgedSubjectUsesIpBucket() throws Exception {
+        UserDetails admin = User.withUsername("admin").password("admin").roles("ADMIN").build();
+        String forged = new JwtService("fakeSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789", 3600000L, 0)
+                .generateTokenFromUsername(admin);
+
+        // Past the limiter, the JWT filter rejects the forged signature
+        assertThrows(GeneralException.class, () -> mockMvc.perform(get("/companies")
+                .with(request -> { request.setRemoteAddr("10.0.0.4"); return request; })
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + forged)));
+
+        mockMvc.perform(get("/companies")
+                        .with(request -> { request.setRemoteAddr("10.0.0.5"); return request; })
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateTokenFromUsername(admin)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,410 @@
+package com.jcuadrado.company.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.dtos.UpdateCompanyDto;
+import com.jcuadrado.company.formats.CompanyProtobufHttpMessageConverter;
+import com.jcuadrado.company.security.RefreshTokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+public class ReactiveCompanyControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    private String jwtToken;
+    private String refreshToken;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("delete from companies").then().block();
+
+        JsonNode auth = webTestClient.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequestDto("admin", "admin"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        jwtToken = "Bearer " + auth.get("token").asText();
+        refreshToken = auth.get("refreshToken").asText();
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Login And Authorization Match The Servlet Stack")
+    void testAuthentication() {
+        webTestClient.post().uri("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequestDto("admin", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/companies")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Refresh Rotates The Token And Detects Reuse")
+    void testRefresh() {
+        JsonNode refreshed = webTestClient.post().uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenRequestDto(refreshToken))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotEquals(refreshToken, refreshed.get("refreshToken").asText());
+
+        webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshed.get("token").asText())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.post().uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenRequestDto(refreshToken))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post().uri("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenRequestDto(refreshed.get("refreshToken").asText()))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - A Rotation Whose Successor Cannot Be Saved Leaves The Token Unused")
+    void testFailedRotationKeepsTokenUsable() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        refreshTokenStore.save("used-digest", "admin", "rotation-family", expiresAt);
+        refreshTokenStore.save("taken-digest", "admin", "rotation-family", expiresAt);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> refreshTokenStore.rotate("used-digest", "taken-digest", "admin", "rotation-family", expiresAt));
+
+        assertTrue(refreshTokenStore.rotate("used-digest", "next-digest", "admin", "rotation-family", expiresAt));
+        assertFalse(refreshTokenStore.rotate("used-digest", "other-digest", "admin", "rotation-family", expiresAt));
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Create And Get Company")
+    void testCreateAndGetCompany() {
+        CompanyDto created = webTestClient.post().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateCompanyDto.builder().name("Test Company").nit("123456789").address("Calle 1").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(CompanyDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created.getId());
+        assertEquals("Test Company", created.getName());
+        assertTrue(created.getActive());
+
+        webTestClient.post().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateCompanyDto.builder().name("Other Company").nit("123456789").build())
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo(CompanyErrorMessages.COMPANY_ALREADY_EXISTS);
+
+        webTestClient.get().uri("/companies/{id}", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.nit").isEqualTo("123456789")
+                .jsonPath("$.address").isEqualTo("Calle 1");
+
+        webTestClient.get().uri("/companies/{id}", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get().uri("/companies/{id}?fields=name", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Company")
+                .jsonPath("$.nit").doesNotExist();
+
+        webTestClient.get().uri("/companies/{id}", created.getId() + 1000)
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo(CompanyErrorMessages.COMPANY_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Create Company With Invalid Data")
+    void testCreateCompanyWithInvalidData() {
+        webTestClient.post().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateCompanyDto.builder().name("").nit("123").phone("invalid-phone").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Error")
+                .jsonPath("$.details.name").exists()
+                .jsonPath("$.details.nit").exists()
+                .jsonPath("$.details.phone").exists();
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Get Companies By Page, Cursor And Search")
+    void testGetAllCompanies() {
+        this.create("Alpha", "11111111");
+        this.create("Beta", "22222222");
+        this.create("Gamma", "33333333");
+        webTestClient.patch().uri("/companies/{id}", this.create("Delta", "44444444").getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"active\": false}")
+                .exchange()
+                .expectStatus().isOk();
+
+        JsonNode firstPage = webTestClient.get().uri("/companies?page=1&size=2")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals("Alpha", firstPage.at("/data/0/name").asText());
+        assertEquals("Beta", firstPage.at("/data/1/name").asText());
+        assertEquals(3, firstPage.at("/totalElements").asInt());
+        assertEquals(2, firstPage.at("/totalPages").asInt());
+        assertTrue(firstPage.at("/hasNext").asBoolean());
+
+        webTestClient.get().uri("/companies?size=2&after={after}", firstPage.at("/nextCursor").asText())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(1)
+                .jsonPath("$.data[0].name").isEqualTo("Gamma")
+                .jsonPath("$.hasNext").isEqualTo(false)
+                .jsonPath("$.totalElements").doesNotExist();
+
+        webTestClient.get().uri("/companies?search=333&count=false")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(1)
+                .jsonPath("$.data[0].name").isEqualTo("Gamma")
+                .jsonPath("$.totalElements").doesNotExist();
+
+        webTestClient.get().uri("/companies?isActive=false")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(1)
+                .jsonPath("$.data[0].name").isEqualTo("Delta");
+
+        String eTag = webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CompanyETags.REVALIDATE)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("W/"));
+
+        webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Get Companies With Sparse Fields And In Protobuf")
+    void testGetAllCompaniesWithFieldsAndProtobuf() throws Exception {
+        this.create("Alpha", "11111111");
+        this.create("Beta", "22222222");
+
+        JsonNode firstPage = webTestClient.get().uri("/companies?fields=nit&size=1")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals("11111111", firstPage.at("/data/0/nit").asText());
+        assertTrue(firstPage.at("/data/0/name").isMissingNode());
+        assertTrue(firstPage.at("/data/0/phone").isMissingNode());
+
+        webTestClient.get().uri("/companies?fields=nit&size=1&after={after}", firstPage.at("/nextCursor").asText())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data[0].nit").isEqualTo("22222222")
+                .jsonPath("$.data[0].phone").doesNotExist();
+
+        byte[] protobuf = webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .accept(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        ProtobufSchema pageSchema = ProtobufSchemaLoader.std
+                .loadNative(new ClassPathResource("proto/company.proto").getInputStream(), true)
+                .forType("CompanyPage");
+        JsonNode protobufPage = new ProtobufMapper().readerFor(JsonNode.class).with(pageSchema).readValue(protobuf);
+        assertEquals("Alpha", protobufPage.at("/data/0/name").asText());
+        assertEquals("3001234567", protobufPage.at("/data/0/phone").asText());
+        assertEquals(2, protobufPage.at("/totalElements").asInt());
+
+        webTestClient.get().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        webTestClient.get().uri("/companies/{id}", 999L)
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .accept(CompanyProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.message").isEqualTo(CompanyErrorMessages.COMPANY_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Reactive Integration Test - Update, Patch And Delete Company")
+    void testUpdatePatchAndDeleteCompany() {
+        CompanyDto company = this.create("Test Company", "123456789");
+
+        webTestClient.put().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UpdateCompanyDto.builder().name("Updated Company").build())
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.message").isEqualTo(CompanyErrorMessages.COMPANY_VERSION_MISMATCH);
+
+        webTestClient.put().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UpdateCompanyDto.builder().name("Updated Company").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Updated Company")
+                .jsonPath("$.nit").isEqualTo("123456789");
+
+        webTestClient.patch().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.parseMediaType(CompanyController.APPLICATION_MERGE_PATCH_JSON_VALUE))
+                .bodyValue("{\"phone\": null, \"address\": \"Calle 2\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Updated Company")
+                .jsonPath("$.address").isEqualTo("Calle 2")
+                .jsonPath("$.phone").doesNotExist();
+
+        webTestClient.patch().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": null}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo(String.format(CompanyErrorMessages.FIELD_CANNOT_BE_REMOVED, "name"));
+
+        webTestClient.delete().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.put().uri("/companies/{id}", company.getId())
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UpdateCompanyDto.builder().name("Updated Company").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private CompanyDto create(String name, String nit) {
+        return webTestClient.post().uri("/companies")
+                .header(HttpHeaders.AUTHORIZATION, jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateCompanyDto.builder().name(name).nit(nit).phone("3001234567").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CompanyDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
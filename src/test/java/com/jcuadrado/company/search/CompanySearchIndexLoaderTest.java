@@ -0,0 +1,56 @@
+package com.jcuadrado.company.search;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.repositories.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompanySearchIndexLoaderTest {
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private CompanySearchIndex index;
+    private CompanySearchIndexLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        index = new CompanySearchIndex(true);
+        loader = new CompanySearchIndexLoader(index, companyRepository);
+        ReflectionTestUtils.setField(loader, "batchSize", 10);
+    }
+
+    @Test
+    @DisplayName("Test a failed first load leaves the index not ready and the next resync loads it")
+    void testFailedLoadRetriedByResync() {
+        CompanyDto company = CompanyDto.builder().id(1L).name("Acme Labs").nit("12345678").build();
+        when(companyRepository.findSlice(eq(true), any(Pageable.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new SliceImpl<>(List.of(company)));
+        when(companyRepository.findPageAfter(true, "Acme Labs", 1L, Limit.of(10))).thenReturn(List.of());
+
+        assertDoesNotThrow(() -> loader.load());
+        assertFalse(index.isReady());
+
+        loader.resync();
+        assertTrue(index.isReady());
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,193 @@
+package com.jcuadrado.company.search;
+
+import com.jcuadrado.company.dtos.CompanyDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompanySearchIndexTest {
+
+    private CompanySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CompanySearchIndex(true);
+        CompanySearchIndex.Reload reload = index.beginReload();
+        reload.add(List.of(
+                CompanyDto.builder().id(1L).name("Globex").nit("87654321").build(),
+                CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build(),
+                CompanyDto.builder().id(3L).name("Acme Foods").nit("11223344").build()
+        ));
+        index.completeReload(reload);
+    }
+
+    @Test
+    @DisplayName("Test search matches name and nit ignoring case, sorted by name")
+    void testSearchMatchesNameAndNit() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(3L, 2L), ids(index.search("ACME", null, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("7654", null, 0, 10)));
+        assertTrue(index.search("acme globex", null, 0, 10).getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test search keeps only the requested page of matches, with the total")
+    void testSearchReturnsTopPage() {
+        for (long id = 10; id < 40; id++) {
+            index.index(CompanyDto.builder().id(id).name("Acme " + (char) ('z' - (id - 10))).nit("5555" + id).build());
+        }
+
+        CompanySearchIndex.SearchPage first = index.search("acme", null, 0, 2);
+        assertEquals(List.of(3L, 2L), ids(first));
+        assertEquals(32, first.getTotal());
+        assertTrue(first.isHasNext());
+
+        CompanySearchIndex.SearchPage second = index.search("acme", null, 2, 2);
+        assertEquals(List.of(39L, 38L), ids(second));
+
+        CompanySearchIndex.SearchPage afterCursor = index.search("acme", first.getContent().get(1), 0, 3);
+        assertEquals(List.of(39L, 38L, 37L), ids(afterCursor));
+        assertEquals(32, afterCursor.getTotal());
+
+        CompanySearchIndex.SearchPage last = index.search("acme", CompanyDto.builder().name("Acme y").id(11L).build(), 0, 5);
+        assertEquals(List.of(10L), ids(last));
+        assertFalse(last.isHasNext());
+    }
+
+    @Test
+    @DisplayName("Test terms shorter than a trigram are left to the database")
+    void testShortTermsNotSupported() {
+        assertFalse(index.supports("l"));
+        assertFalse(index.supports(" ac "));
+        assertTrue(index.supports("acm"));
+        assertThrows(IllegalArgumentException.class, () -> index.search("ac", null, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Test index replaces updated companies and drops deleted ones")
+    void testIndexUpdatesAndRemoves() {
+        index.index(CompanyDto.builder().id(1L).name("Acme Mining").nit("87654321").build());
+        index.remove(3L);
+
+        assertEquals(List.of(2L, 1L), ids(index.search("acme", null, 0, 10)));
+        assertTrue(index.search("globex", null, 0, 10).getContent().isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Test index stays correct after compaction")
+    void testIndexAfterCompaction() {
+        for (long id = 10; id < 20; id++) {
+            index.index(CompanyDto.builder().id(id).name("Temp " + id).nit("9999" + id).build());
+        }
+        for (long id = 10; id < 20; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(3, index.size());
+        assertTrue(index.search("temp", null, 0, 10).getContent().isEmpty());
+        assertEquals(List.of(3L, 2L), ids(index.search("acme", null, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Test repeated updates of the same companies are compacted too")
+    void testRepeatedUpdatesAreCompacted() {
+        for (int version = 0; version < 1000; version++) {
+            index.index(CompanyDto.builder().id(2L).name("Acme Labs " + version).nit("12345678").build());
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L, 2L), ids(index.search("acme", null, 0, 10)));
+        assertEquals("Acme Labs 999", index.search("labs", null, 0, 10).getContent().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Test thousands of companies survive growth, removals and compaction")
+    void testManyCompanies() {
+        for (long id = 100; id < 5100; id++) {
+            index.index(CompanyDto.builder().id(id * 4096).name("Bulk " + id).nit(String.valueOf(70000000 + id)).build());
+        }
+        for (long id = 100; id < 5100; id += 2) {
+            index.remove(id * 4096);
+        }
+
+        assertEquals(2503, index.size());
+        CompanySearchIndex.SearchPage page = index.search("bulk", null, 0, 3);
+        assertEquals(List.of(1001L * 4096, 1003L * 4096, 1005L * 4096), ids(page));
+        assertEquals(2500, page.getTotal());
+        assertEquals(List.of(5099L * 4096), ids(index.search("70005099", null, 0, 10)));
+        assertTrue(index.search("70005098", null, 0, 10).getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test reload replaces the contents and keeps writes made while it ran")
+    void testReloadKeepsWritesMadeWhileReloading() {
+        CompanySearchIndex.Reload reload = index.beginReload();
+        assertNull(index.beginReload());
+        index.index(CompanyDto.builder().id(1L).name("Globex Renamed").nit("87654321").build());
+        index.remove(2L);
+        reload.add(List.of(
+                CompanyDto.builder().id(1L).name("Globex").nit("87654321").build(),
+                CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build(),
+                CompanyDto.builder().id(4L).name("Initech").nit("44443333").build()
+        ));
+
+        assertEquals(List.of(3L), ids(index.search("acme", null, 0, 10)));
+        index.completeReload(reload);
+
+        assertEquals(List.of(1L), ids(index.search("renamed", null, 0, 10)));
+        assertTrue(index.search("acme", null, 0, 10).getContent().isEmpty());
+        assertEquals(List.of(4L), ids(index.search("initech", null, 0, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Test first load skips companies written before it completes")
+    void testFirstLoadKeepsEarlierWrites() {
+        CompanySearchIndex loadingIndex = new CompanySearchIndex(true);
+        loadingIndex.index(CompanyDto.builder().id(1L).name("Globex Renamed").nit("87654321").build());
+        loadingIndex.remove(2L);
+        CompanySearchIndex.Reload reload = loadingIndex.beginReload();
+        reload.add(List.of(
+                CompanyDto.builder().id(1L).name("Globex").nit("87654321").build(),
+                CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build()
+        ));
+        assertFalse(loadingIndex.isReady());
+        loadingIndex.completeReload(reload);
+
+        assertTrue(loadingIndex.isReady());
+        assertEquals(List.of(1L), ids(loadingIndex.search("renamed", null, 0, 10)));
+        assertTrue(loadingIndex.search("acme", null, 0, 10).getContent().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test an aborted reload leaves the current contents answering")
+    void testAbortedReload() {
+        CompanySearchIndex.Reload reload = index.beginReload();
+        reload.add(List.of(CompanyDto.builder().id(4L).name("Initech").nit("44443333").build()));
+        index.abortReload(reload);
+
+        assertEquals(List.of(3L, 2L), ids(index.search("acme", null, 0, 10)));
+        assertTrue(index.search("initech", null, 0, 10).getContent().isEmpty());
+        assertNotNull(index.beginReload());
+    }
+
+    @Test
+    @DisplayName("Test disabled index ignores writes and is never ready")
+    void testDisabledIndex() {
+        CompanySearchIndex disabledIndex = new CompanySearchIndex(false);
+        disabledIndex.index(CompanyDto.builder().id(1L).name("Globex").nit("87654321").build());
+
+        assertNull(disabledIndex.beginReload());
+        assertFalse(disabledIndex.isReady());
+        assertEquals(0, disabledIndex.size());
+    }
+
+    private static List<Long> ids(CompanySearchIndex.SearchPage page) {
+        return page.getContent().stream().map(CompanyDto::getId).toList();
+    }
+}
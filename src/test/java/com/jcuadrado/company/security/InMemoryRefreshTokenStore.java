@@ -0,0 +1,71 @@
+package com.jcuadrado.company.security;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RefreshTokenStore} over a map, for unit tests and benchmarks that run without a database.
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, Row> rows = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(String digest, String username, String family, Instant expiresAt) {
+        rows.put(digest, new Row(username, family, expiresAt));
+    }
+
+    @Override
+    public Optional<StoredRefreshToken> find(String digest, Instant now) {
+        Row row = rows.get(digest);
+        if (row == null || !row.expiresAt.isAfter(now)) {
+            return Optional.empty();
+        }
+        boolean familyRevoked = rows.values().stream().anyMatch(other -> other.family.equals(row.family) && other.revoked);
+        return Optional.of(new StoredRefreshToken(row.username, row.family, familyRevoked));
+    }
+
+    @Override
+    public boolean rotate(String usedDigest, String digest, String username, String family, Instant expiresAt) {
+        Row row = rows.get(usedDigest);
+        if (row == null) {
+            return false;
+        }
+        synchronized (row) {
+            if (row.used) {
+                return false;
+            }
+            row.used = true;
+        }
+        this.save(digest, username, family, expiresAt);
+        return true;
+    }
+
+    @Override
+    public void revokeFamily(String family) {
+        rows.values().stream().filter(row -> row.family.equals(family)).forEach(row -> row.revoked = true);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        int before = rows.size();
+        rows.values().removeIf(row -> !row.expiresAt.isAfter(now));
+        return before - rows.size();
+    }
+
+    private static final class Row {
+        private final String username;
+        private final String family;
+        private final Instant expiresAt;
+        private volatile boolean used;
+        private volatile boolean revoked;
+
+        private Row(String username, String family, Instant expiresAt) {
+            this.username = username;
+            this.family = family;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.jcuadrado.company.security;
+
+import com.jcuadrado.company.exceptions.GeneralException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET_KEY = "testSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        JwtService jwtService = new JwtService(SECRET_KEY, 3600000L, 100);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtService.generateTokenFromUsername(
+                User.withUsername("admin").password("admin").roles("ADMIN").build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Test authentication comes from the token claims without looking the user up")
+    void testAuthenticatesFromClaims() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("admin", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority())));
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Test revocation check rejects the token of a removed user")
+    void testRevocationCheckRejectsRemovedUser() {
+        ReflectionTestUtils.setField(filter, "revocationCheck", true);
+        when(userDetailsService.loadUserByUsername("admin")).thenThrow(new UsernameNotFoundException("admin"));
+
+        GeneralException exception = assertThrows(GeneralException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), filterChain));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Test revocation check accepts the token of an active user")
+    void testRevocationCheckAcceptsActiveUser() throws Exception {
+        ReflectionTestUtils.setField(filter, "revocationCheck", true);
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(User.withUsername("admin").password("admin").roles("ADMIN").build());
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertEquals("admin", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    @DisplayName("Test a token issued without the roles claim gets its authorities from the user store")
+    void testTokenWithoutRolesLoadsAuthorities() throws Exception {
+        String legacyToken = Jwts.builder()
+                .subject("admin")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3600000L))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .compact();
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + legacyToken);
+        when(userDetailsService.loadUserByUsername("admin"))
+                .thenReturn(User.withUsername("admin").password("admin").roles("ADMIN").build());
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("admin", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority())));
+    }
+}
@@ -0,0 +1,87 @@
+package com.jcuadrado.company.security;
+
+import com.jcuadrado.company.exceptions.GeneralException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET_KEY = "testSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET_KEY, 3600000L, 100);
+        userDetails = User.withUsername("admin").password("admin").roles("ADMIN").build();
+    }
+
+    @Test
+    @DisplayName("Test username is read from a valid token, also when it is answered from the cache")
+    void testGetUsernameFromValidToken() {
+        String token = jwtService.generateTokenFromUsername(userDetails);
+
+        assertEquals("admin", jwtService.getUsernameFromJwtToken(token));
+        assertEquals("admin", jwtService.getUsernameFromJwtToken(token));
+        assertTrue(jwtService.validateJwtToken(token));
+    }
+
+    @Test
+    @DisplayName("Test authentication is built from the subject and roles claims of the token")
+    void testGetAuthenticationFromToken() {
+        String token = jwtService.generateTokenFromUsername(userDetails);
+
+        UsernamePasswordAuthenticationToken authentication = jwtService.getAuthenticationFromJwtToken(token);
+
+        assertEquals("admin", authentication.getName());
+        assertTrue(authentication.isAuthenticated());
+        assertEquals(List.of("ROLE_ADMIN"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    @DisplayName("Test tampered token is rejected with unauthorized")
+    void testTamperedTokenIsRejected() {
+        String token = jwtService.generateTokenFromUsername(userDetails);
+        jwtService.getUsernameFromJwtToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> jwtService.getUsernameFromJwtToken(tampered));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Test token signed with another key is rejected with unauthorized")
+    void testTokenWithAnotherKeyIsRejected() {
+        String token = new JwtService(SECRET_KEY.replace('t', 'x'), 3600000L, 100).generateTokenFromUsername(userDetails);
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> jwtService.validateJwtToken(token));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Test expired token is rejected with unauthorized")
+    void testExpiredTokenIsRejected() {
+        String token = new JwtService(SECRET_KEY, -1000L, 100).generateTokenFromUsername(userDetails);
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> jwtService.getUsernameFromJwtToken(token));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Test empty token is rejected with unauthorized")
+    void testEmptyTokenIsRejected() {
+        GeneralException exception = assertThrows(GeneralException.class, () -> jwtService.getUsernameFromJwtToken(""));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+    }
+}
@@ -0,0 +1,149 @@
+package com.jcuadrado.company.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.exceptions.GeneralException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.userdetails.User;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String SECRET_KEY = "testSecretKeyForJwtTokenGenerationInTestEnvironmentMustBeLongEnough123456789";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final JwtService jwtService = new JwtService(SECRET_KEY, 3600000L, 0);
+    private RateLimitRoute auth;
+    private RateLimitRoute companies;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        auth = new RateLimitRoute("auth", "/auth/**", 3, 1, RateLimitRoute.Key.IP);
+        companies = new RateLimitRoute("companies", "/companies/**", 100, 50, RateLimitRoute.Key.SUBJECT);
+        rateLimiter = new RateLimiter(List.of(auth, companies), 1000, token -> {
+            try {
+                return jwtService.getUsernameFromJwtToken(token);
+            } catch (GeneralException e) {
+                return null;
+            }
+        }, clock::get);
+    }
+
+    @Test
+    @DisplayName("Test routes are matched by path pattern")
+    void testRouteFor() {
+        assertSame(auth, rateLimiter.routeFor("/auth/login"));
+        assertSame(companies, rateLimiter.routeFor("/companies"));
+        assertSame(companies, rateLimiter.routeFor("/companies/1"));
+        assertNull(rateLimiter.routeFor("/actuator/health"));
+    }
+
+    @Test
+    @DisplayName("Test a full bucket allows a burst of its capacity, then refills over time")
+    void testBurstAndRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1"));
+        }
+        assertEquals(SECOND, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1"));
+        assertEquals(0, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.2"));
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(SECOND / 2, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1"));
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1"));
+        assertTrue(rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Test a bucket never holds more than its capacity after a long idle period")
+    void testIdleBucketIsCapped() {
+        rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1");
+        clock.addAndGet(60 * SECOND);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1"));
+        }
+        assertTrue(rateLimiter.tryAcquire(auth, "auth:ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    @DisplayName("Test client key uses the verified token subject on subject routes and the IP otherwise")
+    void testClientKey() {
+        String token = jwtService.generateTokenFromUsername(User.withUsername("admin").password("admin").roles("ADMIN").build());
+        String forged = new JwtService(SECRET_KEY.replace("test", "fake"), 3600000L, 0)
+                .generateTokenFromUsername(User.withUsername("admin").password("admin").roles("ADMIN").build());
+
+        assertEquals("companies:sub:admin", rateLimiter.clientKey(companies, "Bearer " + token, "10.0.0.1"));
+        assertEquals("companies:ip:10.0.0.1", rateLimiter.clientKey(companies, "Bearer " + forged, "10.0.0.1"));
+        assertEquals("companies:ip:10.0.0.1", rateLimiter.clientKey(companies, "Bearer not-a-token", "10.0.0.1"));
+        assertEquals("companies:ip:10.0.0.1", rateLimiter.clientKey(companies, null, "10.0.0.1"));
+        assertEquals("auth:ip:10.0.0.1", rateLimiter.clientKey(auth, "Bearer " + token, "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests never take more tokens than the bucket holds")
+    void testConcurrentAcquire() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (rateLimiter.tryAcquire(companies, "companies:sub:admin") == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    @DisplayName("Test Retry-After rounds the wait up to whole seconds")
+    void testRetryAfterSeconds() {
+        assertEquals("1", RateLimiter.retryAfterSeconds(1));
+        assertEquals("1", RateLimiter.retryAfterSeconds(SECOND));
+        assertEquals("2", RateLimiter.retryAfterSeconds(SECOND + 1));
+    }
+
+    @Test
+    @DisplayName("Test the reactive filter keys an unresolved remote address by its host string")
+    void testWebFilterWithUnresolvedAddress() {
+        RateLimitWebFilter filter = new RateLimitWebFilter(rateLimiter, new ObjectMapper());
+        InetSocketAddress unresolved = InetSocketAddress.createUnresolved("client.example", 443);
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login").remoteAddress(unresolved));
+            filter.filter(exchange, chained -> Mono.empty()).block();
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+
+        MockServerWebExchange limited = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login").remoteAddress(unresolved));
+        filter.filter(limited, chained -> Mono.empty()).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    }
+}
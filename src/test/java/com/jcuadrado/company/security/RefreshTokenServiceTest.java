@@ -0,0 +1,79 @@
+package com.jcuadrado.company.security;
+
+import com.jcuadrado.company.constants.AuthErrorMessages;
+import com.jcuadrado.company.exceptions.GeneralException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenServiceTest {
+
+    private InMemoryRefreshTokenStore store;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryRefreshTokenStore();
+        refreshTokenService = new RefreshTokenService(store, 60_000L);
+    }
+
+    @Test
+    @DisplayName("Test rotate returns the user and a new refresh token")
+    void testRotate() {
+        String refreshToken = refreshTokenService.issue("admin");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        assertEquals("admin", rotation.getUsername());
+        assertNotEquals(refreshToken, rotation.getRefreshToken());
+        assertEquals("admin", refreshTokenService.rotate(rotation.getRefreshToken()).getUsername());
+    }
+
+    @Test
+    @DisplayName("Test reused refresh token is rejected and revokes its successor")
+    void testReuseRevokesFamily() {
+        String refreshToken = refreshTokenService.issue("admin");
+        String successor = refreshTokenService.rotate(refreshToken).getRefreshToken();
+
+        GeneralException reused = assertThrows(GeneralException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertEquals(HttpStatus.UNAUTHORIZED, reused.getHttpStatus());
+        assertEquals(AuthErrorMessages.REFRESH_TOKEN_REUSED, reused.getMessage());
+
+        GeneralException revoked = assertThrows(GeneralException.class, () -> refreshTokenService.rotate(successor));
+        assertEquals(AuthErrorMessages.INVALID_REFRESH_TOKEN, revoked.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test reuse in one family does not affect other logins")
+    void testReuseKeepsOtherFamilies() {
+        String stolen = refreshTokenService.issue("admin");
+        String other = refreshTokenService.issue("admin");
+        refreshTokenService.rotate(stolen);
+
+        assertThrows(GeneralException.class, () -> refreshTokenService.rotate(stolen));
+        assertEquals("admin", refreshTokenService.rotate(other).getUsername());
+    }
+
+    @Test
+    @DisplayName("Test unknown refresh token is rejected with unauthorized")
+    void testUnknownToken() {
+        GeneralException exception = assertThrows(GeneralException.class, () -> refreshTokenService.rotate("unknown"));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Test expired refresh token is rejected and swept")
+    void testExpiredToken() {
+        refreshTokenService = new RefreshTokenService(store, -1L);
+        String refreshToken = refreshTokenService.issue("admin");
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertEquals(AuthErrorMessages.INVALID_REFRESH_TOKEN, exception.getMessage());
+        assertEquals(1, store.deleteExpired(Instant.now()));
+    }
+}
@@ -2,19 +2,25 @@ package com.jcuadrado.company.services.impl;
 
 import com.jcuadrado.company.dtos.AuthDto;
 import com.jcuadrado.company.dtos.LoginRequestDto;
+import com.jcuadrado.company.dtos.RefreshTokenRequestDto;
+import com.jcuadrado.company.exceptions.GeneralException;
 import com.jcuadrado.company.security.JwtService;
+import com.jcuadrado.company.security.RefreshTokenService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Collections;
 
@@ -31,6 +37,12 @@ class AuthServiceImplTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
     @Mock
     private Authentication authentication;
 
@@ -61,6 +73,7 @@ class AuthServiceImplTest {
 
         // Mock JWT service
         when(jwtService.generateTokenFromUsername(userDetails)).thenReturn(expectedToken);
+        when(refreshTokenService.issue("testuser")).thenReturn("refresh.token");
 
         // When
         AuthDto result = authService.login(loginRequest);
@@ -68,6 +81,7 @@ class AuthServiceImplTest {
         // Then
         assertNotNull(result);
         assertEquals(expectedToken, result.getToken());
+        assertEquals("refresh.token", result.getRefreshToken());
 
         // Verify interactions
         verify(authenticationManager).authenticate(
@@ -188,4 +202,43 @@ class AuthServiceImplTest {
                 )
         );
     }
+
+    @Test
+    @DisplayName("Test refresh issues a new access token without authenticating the password")
+    void testRefresh() {
+        // Given
+        UserDetails userDetails = User.builder()
+                .username("admin")
+                .password("admin123")
+                .roles("ADMIN")
+                .build();
+
+        when(refreshTokenService.rotate("refresh.token"))
+                .thenReturn(new RefreshTokenService.Rotation("admin", "next.refresh.token"));
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails);
+        when(jwtService.generateTokenFromUsername(userDetails)).thenReturn("admin.jwt.token");
+
+        // When
+        AuthDto result = authService.refresh(new RefreshTokenRequestDto("refresh.token"));
+
+        // Then
+        assertEquals("admin.jwt.token", result.getToken());
+        assertEquals("next.refresh.token", result.getRefreshToken());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Test refresh for a removed user returns unauthorized")
+    void testRefreshForRemovedUser() {
+        // Given
+        when(refreshTokenService.rotate("refresh.token"))
+                .thenReturn(new RefreshTokenService.Rotation("ghost", "next.refresh.token"));
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+
+        // When & Then
+        GeneralException exception = assertThrows(GeneralException.class,
+                () -> authService.refresh(new RefreshTokenRequestDto("refresh.token")));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getHttpStatus());
+        verify(jwtService, never()).generateTokenFromUsername(any());
+    }
 }
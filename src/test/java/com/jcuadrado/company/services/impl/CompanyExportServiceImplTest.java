@@ -0,0 +1,71 @@
+package com.jcuadrado.company.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.exports.ExportFormat;
+import com.jcuadrado.company.repositories.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CompanyExportServiceImplTest {
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompanyExportServiceImpl companyExportService;
+
+    @BeforeEach
+    void setUp() {
+        companyExportService = new CompanyExportServiceImpl(companyRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Test export NDJSON writes one company per line")
+    void testExportNdjson() throws IOException {
+        when(companyRepository.streamAll()).thenReturn(Stream.of(
+                CompanyDto.builder().id(1L).name("Acme").nit("111111111").build(),
+                CompanyDto.builder().id(2L).name("Globex").nit("222222222").build()));
+
+        List<String> lines = this.export(ExportFormat.NDJSON);
+
+        assertEquals(2, lines.size());
+        assertEquals(CompanyDto.builder().id(1L).name("Acme").nit("111111111").build(),
+                objectMapper.readValue(lines.get(0), CompanyDto.class));
+        assertEquals("Globex", objectMapper.readTree(lines.get(1)).get("name").asText());
+    }
+
+    @Test
+    @DisplayName("Test export CSV writes a header and quotes fields when needed")
+    void testExportCsv() throws IOException {
+        when(companyRepository.streamAll()).thenReturn(Stream.of(
+                CompanyDto.builder().id(1L).name("Acme, \"The\" Company").nit("111111111").phone("+573001234567").active(true).build()));
+
+        List<String> lines = this.export(ExportFormat.CSV);
+
+        assertEquals(List.of(
+                "id,name,nit,address,phone,active",
+                "1,\"Acme, \"\"The\"\" Company\",111111111,,+573001234567,true"), lines);
+    }
+
+    private List<String> export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        companyExportService.export(format, output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
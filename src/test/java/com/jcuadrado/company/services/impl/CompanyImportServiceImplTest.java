@@ -0,0 +1,168 @@
+package com.jcuadrado.company.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.*;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.imports.CompanyRowReader;
+import com.jcuadrado.company.services.CompanyService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CompanyImportServiceImplTest {
+
+    @Mock
+    private CompanyService companyService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompanyImportServiceImpl companyImportService;
+
+    @BeforeEach
+    void setUp() {
+        companyImportService = new CompanyImportServiceImpl(companyService,
+                Validation.buildDefaultValidatorFactory().getValidator(), objectMapper);
+        ReflectionTestUtils.setField(companyImportService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Test import NDJSON reports created, invalid and conflicting rows in input order")
+    void testImportNdjson() throws IOException {
+        when(companyService.createBatch(any(BatchCreateCompanyDto.class))).thenAnswer(invocation -> this.createAll(
+                invocation.getArgument(0), "222222222"));
+
+        List<JsonNode> report = this.importCompanies(MediaType.APPLICATION_NDJSON, """
+                {"name": "First Company", "nit": "111111111"}
+                not json
+
+                {"name": "No Nit Company"}
+                {"name": "Second Company", "nit": "222222222"}
+                """);
+
+        assertEquals(4, report.size());
+        assertEquals(1, report.get(0).get("line").asInt());
+        assertEquals("CREATED", report.get(0).get("status").asText());
+        assertTrue(report.get(0).has("id"));
+        assertEquals("INVALID", report.get(1).get("status").asText());
+        assertEquals(CompanyErrorMessages.INVALID_IMPORT_ROW, report.get(1).get("message").asText());
+        assertEquals(4, report.get(2).get("line").asInt());
+        assertEquals("INVALID", report.get(2).get("status").asText());
+        assertTrue(report.get(2).get("errors").has("nit"));
+        assertEquals(5, report.get(3).get("line").asInt());
+        assertEquals("CONFLICT", report.get(3).get("status").asText());
+
+        verify(companyService, times(2)).createBatch(any(BatchCreateCompanyDto.class));
+    }
+
+    @Test
+    @DisplayName("Test import NDJSON reports a null line as invalid and keeps importing")
+    void testImportNdjsonNullLine() throws IOException {
+        when(companyService.createBatch(any(BatchCreateCompanyDto.class))).thenAnswer(invocation -> this.createAll(
+                invocation.getArgument(0)));
+
+        List<JsonNode> report = this.importCompanies(MediaType.APPLICATION_NDJSON, """
+                null
+                {"name": "First Company", "nit": "111111111"}
+                """);
+
+        assertEquals(2, report.size());
+        assertEquals(1, report.get(0).get("line").asInt());
+        assertEquals("INVALID", report.get(0).get("status").asText());
+        assertEquals(CompanyErrorMessages.EMPTY_IMPORT_ROW, report.get(0).get("message").asText());
+        assertEquals("CREATED", report.get(1).get("status").asText());
+    }
+
+    @Test
+    @DisplayName("Test import CSV with quoted fields and columns in any order")
+    void testImportCsv() throws IOException {
+        when(companyService.createBatch(any(BatchCreateCompanyDto.class))).thenAnswer(invocation -> this.createAll(
+                invocation.getArgument(0)));
+
+        List<JsonNode> report = this.importCompanies(CompanyRowReader.TEXT_CSV, """
+                nit,name,address
+                111111111,"Acme, ""The"" Company","Calle 1, Bogotá"
+                222222222,Globex,
+                """);
+
+        assertEquals(2, report.size());
+        assertEquals(2, report.get(0).get("line").asInt());
+        assertEquals("CREATED", report.get(0).get("status").asText());
+        assertEquals("111111111", report.get(0).get("nit").asText());
+        verify(companyService).createBatch(argThat(batch ->
+                batch.getCompanies().get(0).getName().equals("Acme, \"The\" Company")
+                        && batch.getCompanies().get(0).getAddress().equals("Calle 1, Bogotá")
+                        && batch.getCompanies().get(1).getAddress() == null));
+    }
+
+    @Test
+    @DisplayName("Test import CSV without required header")
+    void testImportCsvWithoutHeader() {
+        GeneralException exception = assertThrows(GeneralException.class, () -> this.importCompanies(
+                CompanyRowReader.TEXT_CSV, "111111111,Acme\n"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.INVALID_IMPORT_HEADER, exception.getMessage());
+
+        verifyNoInteractions(companyService);
+    }
+
+    @Test
+    @DisplayName("Test import reports failed rows when a chunk cannot be written")
+    void testImportWithFailedChunk() throws IOException {
+        when(companyService.createBatch(any(BatchCreateCompanyDto.class)))
+                .thenThrow(new GeneralException(HttpStatus.CONFLICT, CompanyErrorMessages.COMPANY_ALREADY_EXISTS));
+
+        List<JsonNode> report = this.importCompanies(MediaType.APPLICATION_NDJSON, """
+                {"name": "First Company", "nit": "111111111"}
+                """);
+
+        assertEquals(1, report.size());
+        assertEquals("FAILED", report.get(0).get("status").asText());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, report.get(0).get("message").asText());
+    }
+
+    private List<JsonNode> importCompanies(MediaType contentType, String body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        companyImportService.importCompanies(contentType,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        List<JsonNode> report = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                report.add(objectMapper.readTree(line));
+            }
+        }
+        return report;
+    }
+
+    private BatchCreateResponseDto createAll(BatchCreateCompanyDto batch, String... takenNits) {
+        List<BatchItemResultDto> results = new ArrayList<>();
+        for (int i = 0; i < batch.getCompanies().size(); i++) {
+            CreateCompanyDto company = batch.getCompanies().get(i);
+            results.add(List.of(takenNits).contains(company.getNit())
+                    ? BatchItemResultDto.builder().index(i).status(BatchItemResultDto.Status.CONFLICT).build()
+                    : BatchItemResultDto.builder().index(i).status(BatchItemResultDto.Status.CREATED)
+                            .company(CompanyDto.builder().id((long) i + 1).nit(company.getNit()).build())
+                            .build());
+        }
+        return BatchCreateResponseDto.builder().results(results).build();
+    }
+}
@@ -5,24 +5,41 @@ import com.jcuadrado.company.dtos.*;
 import com.jcuadrado.company.entities.Company;
 import com.jcuadrado.company.exceptions.GeneralException;
 import com.jcuadrado.company.mappers.CompanyMapper;
+import com.jcuadrado.company.pagination.CompanyCursor;
+import com.jcuadrado.company.repositories.CompanyChangesRepository;
 import com.jcuadrado.company.repositories.CompanyRepository;
+import com.jcuadrado.company.search.CompanySearchIndex;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
-
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -32,9 +49,15 @@ class CompanyServiceImplTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private CompanyChangesRepository companyChangesRepository;
+
     @Mock
     private CompanyMapper companyMapper;
 
+    @Mock
+    private CompanySearchIndex companySearchIndex;
+
     @InjectMocks
     private CompanyServiceImpl companyService;
 
@@ -65,6 +88,7 @@ class CompanyServiceImplTest {
         verify(companyMapper).toCompany(createCompanyDto);
         verify(companyRepository).save(new Company());
         verify(companyMapper).toCompanyDto(new Company());
+        verify(companyChangesRepository).increment();
     }
 
     @Test
@@ -85,6 +109,92 @@ class CompanyServiceImplTest {
         verify(companyRepository).save(new Company());
     }
 
+    @Test
+    @DisplayName("Test create company with duplicated NIT")
+    void testCreateCompanyWithDuplicatedNit() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder()
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(new Company());
+        when(companyRepository.save(new Company())).thenThrow(new DataIntegrityViolationException("Duplicated NIT",
+                new ConstraintViolationException("Duplicated NIT", new SQLException(), "uk_companies_nit")));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.create(createCompanyDto));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+
+        verify(companyRepository).save(new Company());
+        verifyNoInteractions(companySearchIndex);
+    }
+
+    @Test
+    @DisplayName("Test create company whose NIT key has a generated name still returns already exists")
+    void testCreateCompanyDuplicateNitWithGeneratedConstraintName() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder()
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(new Company());
+        when(companyRepository.save(new Company())).thenThrow(new DataIntegrityViolationException("Duplicated NIT",
+                new ConstraintViolationException("ERROR: duplicate key value violates unique constraint " +
+                        "\"uk9p1ttl3mh0bqmxgm2cw1xbuxe\" Detail: Key (nit)=(123456789) already exists.",
+                        new SQLException("duplicate key", "23505"), "uk9p1ttl3mh0bqmxgm2cw1xbuxe")));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.create(createCompanyDto));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test create company with on conflict insert")
+    void testCreateCompanyWithOnConflictInsert() {
+        ReflectionTestUtils.setField(companyService, "onConflictInsert", true);
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder()
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+        Company company = Company.builder().name("Test Company").nit("123456789").build();
+        CompanyDto expectedCompanyDto = CompanyDto.builder()
+                .id(1L)
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(company);
+        when(companyRepository.insertIgnoringNitConflict("123456789", "Test Company", null, null)).thenReturn(Optional.of(1L));
+        when(companyMapper.toCompanyDto(company)).thenReturn(expectedCompanyDto);
+
+        CompanyDto actualCompanyDto = companyService.create(createCompanyDto);
+
+        assertEquals(expectedCompanyDto, actualCompanyDto);
+        assertEquals(1L, company.getId());
+        verify(companyRepository, never()).save(any());
+        verify(companySearchIndex).index(expectedCompanyDto);
+    }
+
+    @Test
+    @DisplayName("Test create company with on conflict insert and duplicated NIT")
+    void testCreateCompanyWithOnConflictInsertAndDuplicatedNit() {
+        ReflectionTestUtils.setField(companyService, "onConflictInsert", true);
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder()
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(Company.builder().name("Test Company").nit("123456789").build());
+        when(companyRepository.insertIgnoringNitConflict("123456789", "Test Company", null, null)).thenReturn(Optional.empty());
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.create(createCompanyDto));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+
+        verify(companyMapper, never()).toCompanyDto(any(Company.class));
+        verifyNoInteractions(companySearchIndex);
+    }
+
     @Test
     @DisplayName("Test create company with general exception")
     void testCreateCompanyWithGeneralException() {
@@ -103,21 +213,66 @@ class CompanyServiceImplTest {
         verify(companyRepository).save(new Company());
     }
 
+    @Test
+    @DisplayName("Test create batch reports created and conflicting companies")
+    void testCreateBatchWithConflicts() {
+        CreateCompanyDto first = CreateCompanyDto.builder().name("First Company").nit("111111111").build();
+        CreateCompanyDto existing = CreateCompanyDto.builder().name("Existing Company").nit("222222222").build();
+        CreateCompanyDto repeated = CreateCompanyDto.builder().name("Repeated Company").nit("111111111").build();
+        Company firstCompany = Company.builder().name("First Company").nit("111111111").build();
+        CompanyDto firstCompanyDto = CompanyDto.builder().id(1L).name("First Company").nit("111111111").build();
+
+        when(companyRepository.findExistingNits(List.of("111111111", "222222222", "111111111"))).thenReturn(Set.of("222222222"));
+        when(companyMapper.toCompany(first)).thenReturn(firstCompany);
+        when(companyMapper.toCompanyDto(firstCompany)).thenReturn(firstCompanyDto);
+
+        BatchCreateResponseDto response = companyService.createBatch(BatchCreateCompanyDto.builder()
+                .companies(List.of(first, existing, repeated))
+                .build());
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getConflicts());
+        assertEquals(BatchItemResultDto.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(firstCompanyDto, response.getResults().get(0).getCompany());
+        assertEquals(BatchItemResultDto.Status.CONFLICT, response.getResults().get(1).getStatus());
+        assertEquals(BatchItemResultDto.Status.CONFLICT, response.getResults().get(2).getStatus());
+        assertEquals(2, response.getResults().get(2).getIndex());
+
+        verify(companyRepository).saveAll(argThat(companies -> companies.iterator().next() == firstCompany));
+        verify(companyRepository).flush();
+        verify(companySearchIndex).index(firstCompanyDto);
+    }
+
+    @Test
+    @DisplayName("Test create batch with concurrent duplicated NIT")
+    void testCreateBatchWithConcurrentDuplicatedNit() {
+        CreateCompanyDto item = CreateCompanyDto.builder().name("Test Company").nit("123456789").build();
+
+        when(companyRepository.findExistingNits(List.of("123456789"))).thenReturn(Set.of());
+        when(companyMapper.toCompany(item)).thenReturn(new Company());
+        doThrow(new DataIntegrityViolationException("Duplicated NIT", new ConstraintViolationException(
+                "Duplicated NIT", new SQLException(), "uk_companies_nit")))
+                .when(companyRepository).flush();
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.createBatch(
+                BatchCreateCompanyDto.builder().companies(List.of(item)).build()));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+
+        verifyNoInteractions(companySearchIndex);
+    }
+
     @Test
     @DisplayName("Test get company by ID with valid ID")
     void testGetCompanyByIdWithValidId() {
         Long companyId = 1L;
-        Company company = new Company();
-        company.setId(companyId);
-        company.setName("Test Company");
-        company.setNit("123456789");
-
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(company));
-        when(companyMapper.toCompanyDto(company)).thenReturn(CompanyDto.builder()
-                .id(company.getId())
-                .name(company.getName())
-                .nit(company.getNit())
-                .build());
+        CompanyDto company = CompanyDto.builder()
+                .id(companyId)
+                .name("Test Company")
+                .nit("123456789")
+                .build();
+
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.of(company));
 
         CompanyDto actualCompanyDto = companyService.getById(companyId);
 
@@ -125,8 +280,8 @@ class CompanyServiceImplTest {
         assertEquals("Test Company", actualCompanyDto.getName());
         assertEquals("123456789", actualCompanyDto.getNit());
 
-        verify(companyRepository).findById(companyId);
-        verify(companyMapper).toCompanyDto(company);
+        verify(companyRepository).findDtoById(companyId);
+        verifyNoInteractions(companyMapper);
     }
 
     @Test
@@ -134,12 +289,12 @@ class CompanyServiceImplTest {
     void testGetCompanyByIdWithInvalidId() {
         Long companyId = 999L;
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.empty());
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.empty());
 
         GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getById(companyId));
         assertEquals(CompanyErrorMessages.COMPANY_NOT_FOUND, exception.getMessage());
 
-        verify(companyRepository).findById(companyId);
+        verify(companyRepository).findDtoById(companyId);
     }
 
     @Test
@@ -147,12 +302,12 @@ class CompanyServiceImplTest {
     void testGetCompanyByIdWithGeneralException() {
         Long companyId = 1L;
 
-        when(companyRepository.findById(companyId)).thenThrow(new RuntimeException("Unexpected error"));
+        when(companyRepository.findDtoById(companyId)).thenThrow(new RuntimeException("Unexpected error"));
 
         GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getById(companyId));
         assertEquals("Unexpected error", exception.getMessage());
 
-        verify(companyRepository).findById(companyId);
+        verify(companyRepository).findDtoById(companyId);
     }
 
     @Test
@@ -164,26 +319,20 @@ class CompanyServiceImplTest {
                 .search("Test")
                 .build();
 
-        Company company = new Company();
-        company.setId(1L);
-        company.setName("Test Company");
-        company.setNit("123456789");
+        CompanyDto company = CompanyDto.builder()
+                .id(1L)
+                .name("Test Company")
+                .nit("123456789")
+                .build();
 
-        Page<Company> page = new PageImpl<>(List.of(company), PageRequest.of(0, 10, Sort.Direction.ASC, "name"), 1);
+        Slice<CompanyDto> page = new SliceImpl<>(List.of(company), PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id"), false);
 
-        when(companyRepository.findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(
-                paginationQueryDto.getSearch(),
-                paginationQueryDto.getSearch(),
-                PageRequest.of(0, 10, Sort.Direction.ASC, "name")))
+        when(companyRepository.search(
+                "%test%",
+                true,
+                PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id")))
                 .thenReturn(page);
 
-        when(companyMapper.toCompanyDtoList(List.of(company)))
-                .thenReturn(List.of(CompanyDto.builder()
-                        .id(company.getId())
-                        .name(company.getName())
-                        .nit(company.getNit())
-                        .build()));
-
         PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
 
         assertEquals(1, response.getData().size());
@@ -194,11 +343,216 @@ class CompanyServiceImplTest {
         assertEquals(10, response.getPageSize());
         assertEquals(1, response.getCurrentPage());
 
-        verify(companyRepository).findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(
-                paginationQueryDto.getSearch(),
-                paginationQueryDto.getSearch(),
-                PageRequest.of(0, 10, Sort.Direction.ASC, "name"));
-        verify(companyMapper).toCompanyDtoList(List.of(company));
+        verify(companyRepository).search(
+                "%test%",
+                true,
+                PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id"));
+        verifyNoInteractions(companyMapper);
+    }
+
+    @Test
+    @DisplayName("Test get all companies without search skips the filter")
+    void testGetAllCompaniesWithoutSearch() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(10)
+                .search("  ")
+                .build();
+        Pageable pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id");
+
+        when(companyRepository.findSlice(true, pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(0, response.getTotalElements());
+        verify(companyRepository).findSlice(true, pageable);
+        verify(companyRepository, never()).search(anyString(), anyBoolean(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Test get all companies runs the count query only when the page is full")
+    void testGetAllCompaniesCountsFullPage() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(1)
+                .search("Test")
+                .build();
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.ASC, "name", "id");
+        CompanyDto company = CompanyDto.builder().id(1L).name("Test Company").nit("123456789").build();
+
+        when(companyRepository.search("%test%", true, pageable)).thenReturn(new SliceImpl<>(List.of(company), pageable, true));
+        when(companyRepository.countBySearch("%test%", true)).thenReturn(5L);
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(5, response.getTotalElements());
+        assertEquals(5, response.getTotalPages());
+        assertEquals(true, response.getHasNext());
+        verify(companyRepository).countBySearch("%test%", true);
+    }
+
+    @Test
+    @DisplayName("Test get all companies without count skips the count query")
+    void testGetAllCompaniesWithoutCount() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(1)
+                .search("Test")
+                .count(false)
+                .build();
+        Pageable pageable = PageRequest.of(0, 1, Sort.Direction.ASC, "name", "id");
+        CompanyDto company = CompanyDto.builder().id(1L).name("Test Company").nit("123456789").build();
+
+        when(companyRepository.search("%test%", true, pageable)).thenReturn(new SliceImpl<>(List.of(company), pageable, true));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(1, response.getData().size());
+        assertEquals(true, response.getHasNext());
+        assertNull(response.getTotalElements());
+        assertNull(response.getTotalPages());
+        verify(companyRepository, never()).countBySearch(anyString(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Test get all companies served by the in-memory search index")
+    void testGetAllCompaniesFromSearchIndex() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(2)
+                .size(1)
+                .search("Acme")
+                .build();
+        CompanyDto acmeLabs = CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build();
+        CompanyDto acmeMining = CompanyDto.builder().id(4L).name("Acme Mining").nit("44332211").build();
+
+        when(companySearchIndex.supports("Acme")).thenReturn(true);
+        when(companySearchIndex.isReady()).thenReturn(true);
+        when(companySearchIndex.search("Acme", null, 1, 1))
+                .thenReturn(new CompanySearchIndex.SearchPage(List.of(CompanyDto.builder().id(2L).name("Acme Labs").build()), 3, true));
+        when(companySearchIndex.search(eq("Acme"), argThat(after -> after != null && after.getId() == 2L), eq(0), eq(1)))
+                .thenReturn(new CompanySearchIndex.SearchPage(List.of(CompanyDto.builder().id(4L).name("Acme Mining").build()), 3, false));
+        when(companyRepository.findActiveByIds(List.of(2L))).thenReturn(List.of(acmeLabs));
+        when(companyRepository.findActiveByIds(List.of(4L))).thenReturn(List.of(acmeMining));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(acmeLabs), response.getData());
+        assertEquals(3, response.getTotalElements());
+        assertEquals(3, response.getTotalPages());
+        assertEquals(2, response.getCurrentPage());
+        assertEquals(new CompanyCursor("Acme Labs", 2L, true).encode(), response.getNextCursor());
+
+        paginationQueryDto.setAfter(response.getNextCursor());
+        PaginatedResponseDto<CompanyDto> nextResponse = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(acmeMining), nextResponse.getData());
+        assertNull(nextResponse.getNextCursor());
+        verify(companyRepository, never()).search(anyString(), anyBoolean(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Test rows found in the search index are loaded with the requested fields, skipping deleted ones")
+    void testGetAllCompaniesFromSearchIndexWithFields() {
+        Set<CompanyField> fields = EnumSet.of(CompanyField.NIT);
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(3)
+                .search("Acme")
+                .fields(fields)
+                .build();
+        CompanyDto acmeFoods = CompanyDto.builder().id(3L).name("Acme Foods").nit("11223344").build();
+        CompanyDto acmeLabs = CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build();
+
+        when(companySearchIndex.supports("Acme")).thenReturn(true);
+        when(companySearchIndex.isReady()).thenReturn(true);
+        when(companySearchIndex.search("Acme", null, 0, 3)).thenReturn(new CompanySearchIndex.SearchPage(List.of(
+                CompanyDto.builder().id(3L).name("Acme Foods").build(),
+                CompanyDto.builder().id(5L).name("Acme Gone").build(),
+                CompanyDto.builder().id(2L).name("Acme Labs").build()), 3, false));
+        when(companyRepository.findActiveByIdsWithFields(fields, List.of(3L, 5L, 2L))).thenReturn(List.of(acmeLabs, acmeFoods));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(acmeFoods, acmeLabs), response.getData());
+        verify(companyRepository, never()).findActiveByIds(any());
+    }
+
+    @Test
+    @DisplayName("Test a database cursor keeps paging in the database while the search index is ready")
+    void testGetAllCompaniesDatabaseCursorSkipsSearchIndex() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .size(10)
+                .search("Acme")
+                .after(new CompanyCursor("Acme Foods", 3L).encode())
+                .build();
+        CompanyDto acmeLabs = CompanyDto.builder().id(2L).name("Acme Labs").nit("12345678").build();
+
+        when(companySearchIndex.supports("Acme")).thenReturn(true);
+        when(companyRepository.searchPageAfter("%acme%", true, "Acme Foods", 3L, Limit.of(11))).thenReturn(List.of(acmeLabs));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(acmeLabs), response.getData());
+        verify(companySearchIndex, never()).search(anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test an index cursor while the search index is still loading answers service unavailable")
+    void testGetAllCompaniesIndexCursorWhileLoading() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .size(10)
+                .search("Acme")
+                .after(new CompanyCursor("Acme Foods", 3L, true).encode())
+                .build();
+
+        when(companySearchIndex.supports("Acme")).thenReturn(true);
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getAll(paginationQueryDto));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.SEARCH_INDEX_LOADING, exception.getMessage());
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    @DisplayName("Test get all companies with fields selects only those columns")
+    void testGetAllCompaniesWithFields() {
+        Set<CompanyField> fields = EnumSet.of(CompanyField.ID, CompanyField.NIT);
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(10)
+                .count(false)
+                .fields(fields)
+                .build();
+        Pageable pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id");
+        CompanyDto company = CompanyDto.builder().id(1L).name("Test Company").nit("123456789").build();
+
+        when(companyRepository.findSliceWithFields(fields, null, true, pageable)).thenReturn(new SliceImpl<>(List.of(company), pageable, false));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(company), response.getData());
+        verify(companyRepository, never()).findSlice(anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Test get all inactive companies bypasses the in-memory search index")
+    void testGetAllInactiveCompanies() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .page(1)
+                .size(10)
+                .search("Acme")
+                .isActive(false)
+                .build();
+        Pageable pageable = PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id");
+        CompanyDto company = CompanyDto.builder().id(1L).name("Acme").nit("123456789").active(false).build();
+
+        when(companyRepository.search("%acme%", false, pageable)).thenReturn(new SliceImpl<>(List.of(company), pageable, false));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(List.of(company), response.getData());
+        verify(companySearchIndex, never()).search(anyString(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -210,19 +564,59 @@ class CompanyServiceImplTest {
                 .search("Test")
                 .build();
 
-        when(companyRepository.findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(
-                paginationQueryDto.getSearch(),
-                paginationQueryDto.getSearch(),
-                PageRequest.of(0, 10, Sort.Direction.ASC, "name")))
+        when(companyRepository.search(
+                "%test%",
+                true,
+                PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id")))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getAll(paginationQueryDto));
         assertEquals("Unexpected error", exception.getMessage());
 
-        verify(companyRepository).findByNameContainingIgnoreCaseOrNitContainingIgnoreCase(
-                paginationQueryDto.getSearch(),
-                paginationQueryDto.getSearch(),
-                PageRequest.of(0, 10, Sort.Direction.ASC, "name"));
+        verify(companyRepository).search(
+                "%test%",
+                true,
+                PageRequest.of(0, 10, Sort.Direction.ASC, "name", "id"));
+    }
+
+    @Test
+    @DisplayName("Test get all companies after cursor")
+    void testGetAllCompaniesAfterCursor() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .size(1)
+                .search("Test")
+                .after(new CompanyCursor("Test Company", 1L).encode())
+                .build();
+
+        CompanyDto company2 = CompanyDto.builder().id(2L).name("Test Company 2").nit("987654321").build();
+        CompanyDto company3 = CompanyDto.builder().id(3L).name("Test Company 3").nit("555555555").build();
+
+        when(companyRepository.searchPageAfter("%test%", true, "Test Company", 1L, Limit.of(2)))
+                .thenReturn(List.of(company2, company3));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(paginationQueryDto);
+
+        assertEquals(1, response.getData().size());
+        assertEquals("Test Company 2", response.getData().get(0).getName());
+        assertEquals(1, response.getPageSize());
+        assertNull(response.getTotalElements());
+        assertEquals(new CompanyCursor("Test Company 2", 2L).encode(), response.getNextCursor());
+
+        verify(companyRepository).searchPageAfter("%test%", true, "Test Company", 1L, Limit.of(2));
+    }
+
+    @Test
+    @DisplayName("Test get all companies with invalid cursor")
+    void testGetAllCompaniesWithInvalidCursor() {
+        PaginationQueryDto paginationQueryDto = PaginationQueryDto.builder()
+                .after("not-a-cursor")
+                .build();
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getAll(paginationQueryDto));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.INVALID_CURSOR, exception.getMessage());
+
+        verifyNoInteractions(companyRepository);
     }
 
     @Test
@@ -233,47 +627,162 @@ class CompanyServiceImplTest {
                 .name("Updated Company")
                 .nit("987654321")
                 .build();
+        CompanyDto updatedCompanyDto = CompanyDto.builder()
+                .id(companyId)
+                .name(updateCompanyDto.getName())
+                .nit(updateCompanyDto.getNit())
+                .active(true)
+                .version(1L)
+                .build();
 
-        Company existingCompany = new Company();
-        existingCompany.setId(companyId);
-        existingCompany.setName("Test Company");
-        existingCompany.setNit("123456789");
+        when(companyRepository.updateCompanyById(companyId, null, "Updated Company", "987654321", null, null, null)).thenReturn(1);
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.of(updatedCompanyDto));
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(existingCompany));
-        when(companyMapper.toCompanyDto(existingCompany)).thenReturn(CompanyDto.builder()
-                .id(existingCompany.getId())
-                .name(existingCompany.getName())
-                .nit(existingCompany.getNit())
-                .build());
+        CompanyDto updatedCompany = companyService.update(companyId, updateCompanyDto, null);
 
-        when(companyMapper.toCompany(CompanyDto.builder()
-                .id(existingCompany.getId())
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build())).thenReturn(new Company());
+        assertEquals(updatedCompanyDto, updatedCompany);
 
-        when(companyRepository.save(new Company())).thenReturn(new Company());
-        when(companyMapper.toCompanyDto(new Company())).thenReturn(CompanyDto.builder()
-                .id(existingCompany.getId())
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build());
+        verify(companyRepository, never()).findById(anyLong());
+        verify(companyRepository, never()).save(any());
+        verify(companyChangesRepository).increment();
+        verify(companySearchIndex).index(updatedCompanyDto);
+    }
+
+    @Test
+    @DisplayName("Test update company with expected version")
+    void testUpdateCompanyWithExpectedVersion() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+        CompanyDto updatedCompanyDto = CompanyDto.builder().id(companyId).name("Updated Company").version(4L).build();
 
-        CompanyDto updatedCompany = companyService.update(companyId, updateCompanyDto);
+        when(companyRepository.updateCompanyById(companyId, 3L, "Updated Company", null, null, null, null)).thenReturn(1);
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.of(updatedCompanyDto));
 
-        assertEquals("Updated Company", updatedCompany.getName());
-        assertEquals("987654321", updatedCompany.getNit());
-        assertEquals(companyId, updatedCompany.getId());
+        CompanyDto updatedCompany = companyService.update(companyId, updateCompanyDto, 3L);
 
-        verify(companyRepository).findById(companyId);
-        verify(companyMapper).toCompanyDto(existingCompany);
-        verify(companyMapper).toCompany(CompanyDto.builder()
-                .id(existingCompany.getId())
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build());
-        verify(companyRepository).save(new Company());
-        verify(companyMapper).toCompanyDto(new Company());
+        assertEquals(4L, updatedCompany.getVersion());
+    }
+
+    @Test
+    @DisplayName("Test update company with stale version")
+    void testUpdateCompanyWithStaleVersion() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+
+        when(companyRepository.updateCompanyById(companyId, 3L, "Updated Company", null, null, null, null)).thenReturn(0);
+        when(companyRepository.findVersionById(companyId)).thenReturn(Optional.of(4L));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_VERSION_MISMATCH, exception.getMessage());
+
+        verify(companyRepository, never()).findDtoById(anyLong());
+        verifyNoInteractions(companyChangesRepository);
+        verifyNoInteractions(companySearchIndex);
+    }
+
+    @Test
+    @DisplayName("Test update company deactivation removes it from the search index")
+    void testUpdateCompanyDeactivation() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().active(false).build();
+
+        when(companyRepository.updateCompanyById(companyId, null, null, null, null, null, false)).thenReturn(1);
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.of(CompanyDto.builder()
+                .id(companyId)
+                .name("Test Company")
+                .nit("123456789")
+                .active(false)
+                .build()));
+
+        CompanyDto updatedCompany = companyService.update(companyId, updateCompanyDto, null);
+
+        assertEquals(false, updatedCompany.getActive());
+        verify(companySearchIndex).remove(companyId);
+        verify(companySearchIndex, never()).index(any());
+    }
+
+    @Test
+    @DisplayName("Test patch company sets only the members sent")
+    void testPatchCompany() {
+        Long companyId = 1L;
+        PatchCompanyDto patchCompanyDto = new PatchCompanyDto();
+        patchCompanyDto.setPhone("+5730012345678");
+        patchCompanyDto.setAddress(null);
+        CompanyDto patchedCompanyDto = CompanyDto.builder().id(companyId).name("Test Company").phone("+5730012345678").version(2L).build();
+        Map<String, Object> expectedChanges = new HashMap<>();
+        expectedChanges.put("phone", "+5730012345678");
+        expectedChanges.put("address", null);
+
+        when(companyRepository.patchCompanyById(companyId, 1L, expectedChanges)).thenReturn(1);
+        when(companyRepository.findDtoById(companyId)).thenReturn(Optional.of(patchedCompanyDto));
+
+        CompanyDto patchedCompany = companyService.patch(companyId, patchCompanyDto, 1L);
+
+        assertEquals(patchedCompanyDto, patchedCompany);
+        verify(companyChangesRepository).increment();
+        verify(companySearchIndex).index(patchedCompanyDto);
+    }
+
+    @Test
+    @DisplayName("Test patch company rejects removing a required field")
+    void testPatchCompanyRemovingRequiredField() {
+        PatchCompanyDto patchCompanyDto = new PatchCompanyDto();
+        patchCompanyDto.setNit(null);
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.patch(1L, patchCompanyDto, null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertEquals(String.format(CompanyErrorMessages.FIELD_CANNOT_BE_REMOVED, "nit"), exception.getMessage());
+
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    @DisplayName("Test empty patch returns the company without writing")
+    void testEmptyPatchCompany() {
+        CompanyDto companyDto = CompanyDto.builder().id(1L).name("Test Company").version(3L).build();
+
+        when(companyRepository.findDtoById(1L)).thenReturn(Optional.of(companyDto));
+
+        assertEquals(companyDto, companyService.patch(1L, new PatchCompanyDto(), 3L));
+        verify(companyRepository, never()).patchCompanyById(anyLong(), any(), any());
+        verifyNoInteractions(companyChangesRepository);
+    }
+
+    @Test
+    @DisplayName("Test update company with invalid ID")
+    void testUpdateCompanyWithInvalidId() {
+        Long companyId = 999L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+
+        when(companyRepository.updateCompanyById(companyId, null, "Updated Company", null, null, null, null)).thenReturn(0);
+        when(companyRepository.findVersionById(companyId)).thenReturn(Optional.empty());
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto, null));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_NOT_FOUND, exception.getMessage());
+
+        verifyNoInteractions(companyChangesRepository);
+        verifyNoInteractions(companySearchIndex);
+    }
+
+    @Test
+    @DisplayName("Test update company with duplicated NIT")
+    void testUpdateCompanyWithDuplicatedNit() {
+        Long companyId = 1L;
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder()
+                .nit("987654321")
+                .build();
+
+        when(companyRepository.updateCompanyById(companyId, null, null, "987654321", null, null, null))
+                .thenThrow(new DataIntegrityViolationException("Duplicated NIT", new ConstraintViolationException(
+                        "Duplicated NIT", new SQLException(), "PUBLIC.UK_COMPANIES_NIT_INDEX_1")));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto, null));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+
+        verifyNoInteractions(companySearchIndex);
     }
 
     @Test
@@ -285,32 +794,12 @@ class CompanyServiceImplTest {
                 .nit("987654321")
                 .build();
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(new Company()));
-        when(companyMapper.toCompanyDto(new Company())).thenReturn(CompanyDto.builder()
-                .id(companyId)
-                .name("Test Company")
-                .nit("123456789")
-                .build());
+        when(companyRepository.updateCompanyById(companyId, null, "Updated Company", "987654321", null, null, null))
+                .thenThrow(new DataIntegrityViolationException("Data integrity violation"));
 
-        when(companyMapper.toCompany(CompanyDto.builder()
-                .id(companyId)
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build())).thenReturn(new Company());
-
-        when(companyRepository.save(new Company())).thenThrow(new DataIntegrityViolationException("Data integrity violation"));
-
-        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto));
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto, null));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
         assertEquals(CompanyErrorMessages.DATA_INTEGRITY_ERROR, exception.getMessage());
-
-        verify(companyRepository).findById(companyId);
-        verify(companyMapper).toCompanyDto(new Company());
-        verify(companyMapper).toCompany(CompanyDto.builder()
-                .id(companyId)
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build());
-        verify(companyRepository).save(new Company());
     }
 
     @Test
@@ -322,32 +811,11 @@ class CompanyServiceImplTest {
                 .nit("987654321")
                 .build();
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(new Company()));
-        when(companyMapper.toCompanyDto(new Company())).thenReturn(CompanyDto.builder()
-                .id(companyId)
-                .name("Test Company")
-                .nit("123456789")
-                .build());
-
-        when(companyMapper.toCompany(CompanyDto.builder()
-                .id(companyId)
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build())).thenReturn(new Company());
-
-        when(companyRepository.save(new Company())).thenThrow(new RuntimeException("Unexpected error"));
+        when(companyRepository.updateCompanyById(companyId, null, "Updated Company", "987654321", null, null, null))
+                .thenThrow(new RuntimeException("Unexpected error"));
 
-        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto));
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.update(companyId, updateCompanyDto, null));
         assertEquals("Unexpected error", exception.getMessage());
-
-        verify(companyRepository).findById(companyId);
-        verify(companyMapper).toCompanyDto(new Company());
-        verify(companyMapper).toCompany(CompanyDto.builder()
-                .id(companyId)
-                .name(updateCompanyDto.getName())
-                .nit(updateCompanyDto.getNit())
-                .build());
-        verify(companyRepository).save(new Company());
     }
 
     @Test
@@ -355,12 +823,103 @@ class CompanyServiceImplTest {
     void testDeleteCompanyWithValidId() {
         Long companyId = 1L;
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(new Company()));
+        when(companyRepository.deleteCompanyById(companyId)).thenReturn(1);
+
+        companyService.delete(companyId);
+
+        verify(companyRepository).deleteCompanyById(companyId);
+        verify(companySearchIndex).remove(companyId);
+        verifyNoMoreInteractions(companyRepository);
+    }
+
+    @Test
+    @DisplayName("Test get version with valid ID")
+    void testGetVersion() {
+        when(companyRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertEquals(4L, companyService.getVersion(1L));
+        verify(companyRepository, never()).findDtoById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get version with invalid ID")
+    void testGetVersionWithInvalidId() {
+        when(companyRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getVersion(1L));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_NOT_FOUND, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test get changes reads the change counter")
+    void testGetChanges() {
+        when(companyChangesRepository.findChanges()).thenReturn(Optional.of(12L));
+
+        assertEquals(12L, companyService.getChanges());
+    }
+
+    @Test
+    @DisplayName("Test writes reach the search index only once committed")
+    void testSearchIndexUpdatedAfterCommit() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder().name("Test Company").nit("123456789").build();
+        CompanyDto companyDto = CompanyDto.builder().id(1L).name("Test Company").build();
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(new Company());
+        when(companyRepository.save(new Company())).thenReturn(new Company());
+        when(companyMapper.toCompanyDto(new Company())).thenReturn(companyDto);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            companyService.create(createCompanyDto);
+            verify(companySearchIndex, never()).index(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(companySearchIndex).index(companyDto);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a failed bump after commit is retried by the next listing")
+    void testFailedChangeBumpRetriedByNextListing() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder().name("Test Company").nit("123456789").build();
+        when(companyMapper.toCompany(createCompanyDto)).thenReturn(new Company());
+        when(companyRepository.save(new Company())).thenReturn(new Company());
+        when(companyMapper.toCompanyDto(new Company())).thenReturn(CompanyDto.builder().id(1L).build());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            companyService.create(createCompanyDto);
+            doThrow(new DataAccessResourceFailureException("Connection lost")).when(companyChangesRepository).increment();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(DataAccessResourceFailureException.class, () -> companyService.getChanges());
+        doNothing().when(companyChangesRepository).increment();
+        when(companyChangesRepository.findChanges()).thenReturn(Optional.of(13L));
+
+        assertEquals(13L, companyService.getChanges());
+        assertEquals(13L, companyService.getChanges());
+        verify(companyChangesRepository, times(4)).increment();
+    }
+
+    @Test
+    @DisplayName("Test soft delete company deactivates it")
+    void testSoftDeleteCompany() {
+        ReflectionTestUtils.setField(companyService, "softDelete", true);
+        Long companyId = 1L;
+
+        when(companyRepository.deactivateCompanyById(companyId)).thenReturn(1);
 
         companyService.delete(companyId);
 
-        verify(companyRepository).findById(companyId);
-        verify(companyRepository).deleteById(companyId);
+        verify(companyRepository).deactivateCompanyById(companyId);
+        verify(companyRepository, never()).deleteCompanyById(anyLong());
+        verify(companySearchIndex).remove(companyId);
     }
 
     @Test
@@ -368,12 +927,15 @@ class CompanyServiceImplTest {
     void testDeleteCompanyWithInvalidId() {
         Long companyId = 999L;
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.empty());
+        when(companyRepository.deleteCompanyById(companyId)).thenReturn(0);
 
         GeneralException exception = assertThrows(GeneralException.class, () -> companyService.delete(companyId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
         assertEquals(CompanyErrorMessages.COMPANY_NOT_FOUND, exception.getMessage());
 
-        verify(companyRepository).findById(companyId);
+        verify(companyRepository).deleteCompanyById(companyId);
+        verifyNoInteractions(companySearchIndex);
+        verifyNoInteractions(companyChangesRepository);
     }
 
     @Test
@@ -381,13 +943,12 @@ class CompanyServiceImplTest {
     void testDeleteCompanyWithGeneralException() {
         Long companyId = 1L;
 
-        when(companyRepository.findById(companyId)).thenReturn(Optional.of(new Company()));
-        doThrow(new RuntimeException("Unexpected error")).when(companyRepository).deleteById(companyId);
+        when(companyRepository.deleteCompanyById(companyId)).thenThrow(new RuntimeException("Unexpected error"));
 
         GeneralException exception = assertThrows(GeneralException.class, () -> companyService.delete(companyId));
         assertEquals("Unexpected error", exception.getMessage());
 
-        verify(companyRepository).findById(companyId);
+        verify(companyRepository).deleteCompanyById(companyId);
     }
 
 }
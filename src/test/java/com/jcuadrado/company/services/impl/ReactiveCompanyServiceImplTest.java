@@ -0,0 +1,126 @@
+package com.jcuadrado.company.services.impl;
+
+import com.jcuadrado.company.constants.CompanyErrorMessages;
+import com.jcuadrado.company.dtos.CompanyDto;
+import com.jcuadrado.company.dtos.CreateCompanyDto;
+import com.jcuadrado.company.dtos.PaginatedResponseDto;
+import com.jcuadrado.company.dtos.PaginationQueryDto;
+import com.jcuadrado.company.dtos.UpdateCompanyDto;
+import com.jcuadrado.company.exceptions.GeneralException;
+import com.jcuadrado.company.repositories.ReactiveCompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCompanyServiceImplTest {
+
+    @Mock
+    private ReactiveCompanyRepository companyRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveCompanyServiceImpl companyService;
+
+    private CompanyDto companyDto;
+
+    @BeforeEach
+    void setUp() {
+        companyDto = CompanyDto.builder().id(1L).name("Test Company").nit("123456789").active(true).version(0L).build();
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Test create company records the change and returns the stored row")
+    void testCreateCompany() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder().name("Test Company").nit("123456789").build();
+        when(companyRepository.nextId()).thenReturn(Mono.just(1L));
+        when(companyRepository.insert(1L, "123456789", "Test Company", null, null)).thenReturn(Mono.just(1L));
+        when(companyRepository.incrementChanges()).thenReturn(Mono.just(1L));
+        when(companyRepository.findDtoById(1L)).thenReturn(Mono.just(companyDto));
+
+        assertEquals(companyDto, companyService.create(createCompanyDto).block());
+        verify(companyRepository, times(2)).incrementChanges();
+    }
+
+    @Test
+    @DisplayName("Test create company with a taken NIT returns conflict")
+    void testCreateCompanyConflict() {
+        CreateCompanyDto createCompanyDto = CreateCompanyDto.builder().name("Test Company").nit("123456789").build();
+        when(companyRepository.nextId()).thenReturn(Mono.just(1L));
+        when(companyRepository.insert(1L, "123456789", "Test Company", null, null))
+                .thenReturn(Mono.error(new DuplicateKeyException("uk_companies_nit")));
+        when(companyRepository.findDtoById(1L)).thenReturn(Mono.just(companyDto));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.create(createCompanyDto).block());
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals(CompanyErrorMessages.COMPANY_ALREADY_EXISTS, exception.getMessage());
+        verify(companyRepository, never()).incrementChanges();
+    }
+
+    @Test
+    @DisplayName("Test get all companies reads one extra row to detect the next page")
+    void testGetAllCompanies() {
+        PaginationQueryDto queryDto = PaginationQueryDto.builder().page(1).size(1).count(true).build();
+        CompanyDto second = CompanyDto.builder().id(2L).name("Z Company").nit("987654321").build();
+        when(companyRepository.findPage(null, null, true, 2, 0L)).thenReturn(Flux.just(companyDto, second));
+        when(companyRepository.count(null, true)).thenReturn(Mono.just(2L));
+
+        PaginatedResponseDto<CompanyDto> response = companyService.getAll(queryDto).block();
+
+        assertEquals(List.of(companyDto), response.getData());
+        assertTrue(response.getHasNext());
+        assertNotNull(response.getNextCursor());
+        assertEquals(2L, response.getTotalElements());
+        assertEquals(2, response.getTotalPages());
+    }
+
+    @Test
+    @DisplayName("Test get company by id not found")
+    void testGetCompanyByIdNotFound() {
+        when(companyRepository.findDtoById(1L)).thenReturn(Mono.empty());
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.getById(1L).block());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("Test update company with a stale version returns precondition failed")
+    void testUpdateCompanyVersionMismatch() {
+        UpdateCompanyDto updateCompanyDto = UpdateCompanyDto.builder().name("Updated Company").build();
+        when(companyRepository.update(1L, 3L, "Updated Company", null, null, null, null)).thenReturn(Mono.just(0L));
+        when(companyRepository.findVersionById(1L)).thenReturn(Mono.just(4L));
+
+        GeneralException exception = assertThrows(GeneralException.class,
+                () -> companyService.update(1L, updateCompanyDto, 3L).block());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus());
+        verify(companyRepository, never()).incrementChanges();
+    }
+
+    @Test
+    @DisplayName("Test delete company not found")
+    void testDeleteCompanyNotFound() {
+        when(companyRepository.deleteById(1L)).thenReturn(Mono.just(0L));
+
+        GeneralException exception = assertThrows(GeneralException.class, () -> companyService.delete(1L).block());
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+        verify(companyRepository, never()).incrementChanges();
+    }
+}
@@ -0,0 +1,2 @@
+create sequence if not exists company_changes_seq start with 1;
+create or replace view company_changes as select base_value as changes from information_schema.sequences where sequence_name = 'COMPANY_CHANGES_SEQ';
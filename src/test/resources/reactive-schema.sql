@@ -0,0 +1,33 @@
+-- Schema for the reactive integration tests, which run without Hibernate (H2 in PostgreSQL mode).
+DROP TABLE IF EXISTS companies;
+DROP VIEW IF EXISTS company_changes;
+DROP TABLE IF EXISTS refresh_tokens;
+DROP SEQUENCE IF EXISTS companies_seq;
+DROP SEQUENCE IF EXISTS company_changes_seq;
+
+CREATE SEQUENCE companies_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE companies (
+    id      BIGINT PRIMARY KEY,
+    nit     VARCHAR(255) NOT NULL,
+    name    VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    phone   VARCHAR(255),
+    active  BOOLEAN NOT NULL DEFAULT TRUE,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_companies_nit UNIQUE (nit)
+);
+
+-- H2 has no last_value column on sequences; BASE_VALUE is the next value, which grows the same way.
+CREATE SEQUENCE company_changes_seq START WITH 1;
+CREATE VIEW company_changes AS
+    SELECT base_value AS changes FROM information_schema.sequences WHERE sequence_name = 'COMPANY_CHANGES_SEQ';
+
+CREATE TABLE refresh_tokens (
+    token_digest VARCHAR(64) PRIMARY KEY,
+    username     VARCHAR(255) NOT NULL,
+    family       VARCHAR(36) NOT NULL,
+    expires_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    used         BOOLEAN NOT NULL DEFAULT FALSE,
+    revoked      BOOLEAN NOT NULL DEFAULT FALSE
+);